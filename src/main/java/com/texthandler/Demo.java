@@ -8,8 +8,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Демонстрационный класс - показывает работу всех операций без интерактивного ввода
@@ -20,35 +20,31 @@ public class Demo {
     public static void main(String[] args) {
         try {
             // Чтение и парсинг текста
-            String inputText = Files.readString(Paths.get("src/main/resources/input.txt"));
-            TextComponent parsedText = createParserChain().parse(inputText);
+            TextComponent parsedText = createParser().parse(Paths.get("src/main/resources/input.txt"));
             
             System.out.println("=== АВТОМАТИЧЕСКАЯ ДЕМОНСТРАЦИЯ ВСЕХ ОПЕРАЦИЙ ===\n");
             System.out.println("Исходный текст:");
             System.out.println(parsedText.restore());
             System.out.println("\n" + "=".repeat(80) + "\n");
             
-            // ПРЯМЫЕ ВЫЗОВЫ ВСЕХ ОПЕРАЦИЙ:
-            
-            // 1. Сортировка абзацев по количеству предложений
-            executeOperation("ОПЕРАЦИЯ 1: СОРТИРОВКА АБЗАЦЕВ", 
-                           new SortParagraphsBySentenceCountOperation(), parsedText);
-            
-            // 2. Поиск предложений с самым длинным словом
-            executeOperation("ОПЕРАЦИЯ 2: ПОИСК САМЫХ ДЛИННЫХ СЛОВ", 
-                           new FindSentencesWithLongestWordOperation(), parsedText);
-            
-            // 3. Удаление коротких предложений (с ЗАДАННЫМ параметром для демо)
-            executeOperation("ОПЕРАЦИЯ 3: УДАЛЕНИЕ КОРОТКИХ ПРЕДЛОЖЕНИЙ (минимум 5 слов)", 
-                           new RemoveShortSentencesOperation(5), parsedText);
-            
-            // 4. Подсчет одинаковых слов
-            executeOperation("ОПЕРАЦИЯ 4: ПОДСЧЕТ ОДИНАКОВЫХ СЛОВ", 
-                           new CountIdenticalWordsOperation(), parsedText);
-            
-            // 5. Подсчет гласных и согласных
-            executeOperation("ОПЕРАЦИЯ 5: АНАЛИЗ ГЛАСНЫХ И СОГЛАСНЫХ", 
-                           new CountVowelsConsonantsOperation(), parsedText);
+            // ВСЕ ОПЕРАЦИИ ЗА ОДИН ОБХОД ДОКУМЕНТА:
+            List<String> titles = List.of(
+                    "ОПЕРАЦИЯ 1: СОРТИРОВКА АБЗАЦЕВ",
+                    "ОПЕРАЦИЯ 2: ПОИСК САМЫХ ДЛИННЫХ СЛОВ",
+                    "ОПЕРАЦИЯ 3: УДАЛЕНИЕ КОРОТКИХ ПРЕДЛОЖЕНИЙ (минимум 5 слов)",
+                    "ОПЕРАЦИЯ 4: ПОДСЧЕТ ОДИНАКОВЫХ СЛОВ",
+                    "ОПЕРАЦИЯ 5: АНАЛИЗ ГЛАСНЫХ И СОГЛАСНЫХ");
+            List<TextOperation> operations = List.of(
+                    new SortParagraphsBySentenceCountOperation(),
+                    new FindSentencesWithLongestWordOperation(),
+                    new RemoveShortSentencesOperation(5), // с ЗАДАННЫМ параметром для демо
+                    new CountIdenticalWordsOperation(),
+                    new CountVowelsConsonantsOperation());
+            List<FusedOperationExecutor.Result> results = new FusedOperationExecutor(operations).executeEach(parsedText);
+
+            for (int i = 0; i < operations.size(); i++) {
+                printResult(titles.get(i), operations.get(i), results.get(i));
+            }
             
             System.out.println("🎉 ДЕМОНСТРАЦИЯ ЗАВЕРШЕНА!");
             
@@ -61,32 +57,23 @@ public class Demo {
         }
     }
     
-    private static void executeOperation(String title, TextOperation operation, TextComponent text) {
+    private static void printResult(String title, TextOperation operation, FusedOperationExecutor.Result result) {
         System.out.println("🔸 " + title);
         System.out.println("Описание: " + operation.getDescription());
         System.out.println("-".repeat(60));
         
-        try {
-            String result = operation.execute(text);
-            System.out.println(result);
-        } catch (Exception e) {
-            System.out.println("Ошибка выполнения операции: " + e.getMessage());
-            logger.error("Error executing operation: " + operation.getName(), e);
+        if (result.isSuccess()) {
+            System.out.println(result.value());
+        } else {
+            System.out.println("Ошибка выполнения операции: " + result.error().getMessage());
+            logger.error("Error executing operation: " + operation.getName(), result.error());
         }
         
         System.out.println("=".repeat(80) + "\n");
     }
     
-    private static TextParser createParserChain() {
-        TextParser textParser = new TextLevelParser();
-        TextParser paragraphParser = new ParagraphLevelParser();
-        TextParser sentenceParser = new SentenceLevelParser();
-        TextParser lexemeParser = new LexemeLevelParser();
-        
-        textParser.setNext(paragraphParser);
-        paragraphParser.setNext(sentenceParser);
-        sentenceParser.setNext(lexemeParser);
-        
-        return textParser;
+    private static TextParser createParser() {
+        // Однопроходный парсер строит то же дерево, что и цепочка уровней
+        return new SinglePassTextParser();
     }
 }
\ No newline at end of file
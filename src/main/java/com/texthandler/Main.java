@@ -1,35 +1,55 @@
 package com.texthandler;
 
+import com.texthandler.batch.BatchProcessor;
+import com.texthandler.batch.BatchResult;
 import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.metrics.MetricsRegistry;
+import com.texthandler.metrics.MetricsReporter;
+import com.texthandler.operation.CountIdenticalWordsOperation;
+import com.texthandler.operation.RemoveShortSentencesOperation;
 import com.texthandler.operation.TextOperation;
 import com.texthandler.operation.TextOperationFactory;
 import com.texthandler.parser.*;
+import com.texthandler.snapshot.DocumentSnapshots;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * Главный класс приложения для обработки текста
+ * Главный класс приложения для обработки текста.
+ * Без аргументов работает в интерактивном режиме с файлом input.txt,
+ * с аргументами - в пакетном режиме:
+ * {@code [--operations=1,2,4,5] [--min-words=5] <файл или каталог>...}
  */
 public class Main {
     private static final Logger logger = LogManager.getLogger(Main.class);
     private static final Scanner scanner = new Scanner(System.in);
+    private static final String OPERATIONS_OPTION = "--operations=";
+    private static final String MIN_WORDS_OPTION = "--min-words=";
+    private static final String METRICS_INTERVAL_OPTION = "--metrics-interval=";
+    private static final String PARALLEL_WORDS_OPTION = "--parallel-words";
+    private static final int DEFAULT_MIN_WORDS = 5;
     
     public static void main(String[] args) {
+        if (args.length > 0) {
+            runBatch(args);
+            return;
+        }
         try {
-            // Чтение файла
-            String inputText = Files.readString(Paths.get("src/main/resources/input.txt"));
-            logger.info("Text loaded from file");
-            
-            // Создание цепочки парсеров
-            TextParser textParser = createParserChain();
+            // Создание парсера
+            TextParser textParser = createParser();
             
-            // Парсинг текста
-            TextComponent parsedText = textParser.parse(inputText);
+            // Снимок предыдущего запуска из target/snapshots или потоковое чтение и парсинг файла
+            TextComponent parsedText = DocumentSnapshots.loadOrParse(Paths.get("src/main/resources/input.txt"), textParser);
             logger.info("Text parsed successfully");
             
             System.out.println("=== СИСТЕМА ОБРАБОТКИ ТЕКСТА ===\n");
@@ -48,6 +68,7 @@ public class Main {
                     
                     if (choice == 0) {
                         running = false;
+                        logMetrics(MetricsRegistry.global().summary());
                         System.out.println("До свидания!");
                         continue;
                     }
@@ -63,7 +84,7 @@ public class Main {
                     System.out.println("Выполняется: " + operation.getName());
                     System.out.println("=".repeat(60));
                     
-                    String result = operation.execute(parsedText);
+                    String result = BatchProcessor.execute(operation, parsedText);
                     System.out.println(result);
                     
                     System.out.println("=".repeat(60));
@@ -87,16 +108,84 @@ public class Main {
         }
     }
     
-    private static TextParser createParserChain() {
-        TextParser textParser = new TextLevelParser();
-        TextParser paragraphParser = new ParagraphLevelParser();
-        TextParser sentenceParser = new SentenceLevelParser();
-        TextParser lexemeParser = new LexemeLevelParser();
-        
-        textParser.setNext(paragraphParser);
-        paragraphParser.setNext(sentenceParser);
-        sentenceParser.setNext(lexemeParser);
-        
-        return textParser;
+    private static void runBatch(String[] args) {
+        List<Integer> operationNumbers = new ArrayList<>(TextOperationFactory.getAvailableOperations());
+        int minWords = DEFAULT_MIN_WORDS;
+        long metricsInterval = 0;
+        boolean parallelWords = false;
+        List<Path> paths = new ArrayList<>();
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith(OPERATIONS_OPTION)) {
+                    operationNumbers.clear();
+                    for (String number : arg.substring(OPERATIONS_OPTION.length()).split(",")) {
+                        operationNumbers.add(Integer.parseInt(number.trim()));
+                    }
+                } else if (arg.startsWith(MIN_WORDS_OPTION)) {
+                    minWords = Integer.parseInt(arg.substring(MIN_WORDS_OPTION.length()).trim());
+                } else if (arg.equals(PARALLEL_WORDS_OPTION)) {
+                    parallelWords = true;
+                } else if (arg.startsWith(METRICS_INTERVAL_OPTION)) {
+                    metricsInterval = Long.parseLong(arg.substring(METRICS_INTERVAL_OPTION.length()).trim());
+                } else {
+                    paths.add(Paths.get(arg));
+                }
+            }
+
+            // Операция удаления коротких предложений запрашивает параметр интерактивно,
+            // поэтому в пакетном режиме он передается заранее
+            // Подсчет одинаковых слов в большом документе можно распределить по абзацам между ядрами
+            List<TextOperation> operations = new ArrayList<>();
+            for (int number : operationNumbers) {
+                if (number == 3) {
+                    operations.add(new RemoveShortSentencesOperation(minWords));
+                } else if (number == 4 && parallelWords) {
+                    operations.add(new CountIdenticalWordsOperation(ForkJoinPool.commonPool()));
+                } else {
+                    operations.add(TextOperationFactory.createOperation(number));
+                }
+            }
+
+            // Цепочка останавливается на уровне предложений, если глубже не нужно ни одной операции:
+            // предложения такой цепочки восстанавливаются так же, как полностью разобранные
+            TextComponentType depth = TextOperationFactory.getRequiredDepth(operations);
+            TextParser parser = depth == TextComponentType.SENTENCE
+                    ? ParserChainFactory.createChain(depth) : createParser();
+            BatchProcessor processor = new BatchProcessor(parser, operations);
+            // Сводка метрик выводится периодически (если задан интервал в секундах) и по завершении
+            MetricsReporter reporter = metricsInterval > 0
+                    ? MetricsReporter.start(MetricsRegistry.global(), Duration.ofSeconds(metricsInterval), Main::logMetrics)
+                    : null;
+            try {
+                for (Path path : paths) {
+                    BatchResult result = processor.process(path);
+                    System.out.println(path);
+                    System.out.println(result.getReport());
+                }
+            } finally {
+                if (reporter != null) {
+                    reporter.close();
+                }
+                logMetrics(MetricsRegistry.global().summary());
+            }
+        } catch (IOException e) {
+            logger.error("Error reading input files", e);
+            System.out.println("Ошибка чтения файлов: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid batch arguments", e);
+            System.out.println("Неверные аргументы: " + e.getMessage());
+        }
+    }
+    
+    private static void logMetrics(String summary) {
+        if (!summary.isEmpty()) {
+            logger.info("Metrics:\n{}", summary);
+        }
+    }
+
+    private static TextParser createParser() {
+        // Однопроходный парсер строит то же дерево, что и цепочка уровней
+        return new SinglePassTextParser();
     }
 }
\ No newline at end of file
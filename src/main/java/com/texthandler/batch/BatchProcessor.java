@@ -0,0 +1,149 @@
+package com.texthandler.batch;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
+import com.texthandler.operation.FusedOperationExecutor;
+import com.texthandler.operation.TextOperation;
+import com.texthandler.parser.TextParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Пакетная обработка множества документов.
+ * Каждый файл обрабатывается в отдельном виртуальном потоке: чтение, разбор и выполнение
+ * выбранных операций. Число одновременно обрабатываемых файлов ограничено семафором,
+ * блокирующее чтение освобождает поток-носитель, поэтому ввод-вывод перекрывается
+ * с разбором без настройки размеров пулов.
+ * Парсер и операции используются всеми потоками одновременно и не должны хранить состояние.
+ */
+public class BatchProcessor {
+    private static final Logger logger = LogManager.getLogger(BatchProcessor.class);
+
+    private static final Histogram FILE_TIME = MetricsRegistry.global().histogram("batch.file.nanos");
+
+    public static final int DEFAULT_MAX_CONCURRENCY = Runtime.getRuntime().availableProcessors() * 4;
+
+    private final TextParser parser;
+    private final List<TextOperation> operations;
+    private final FusedOperationExecutor executor;
+    private final int maxConcurrency;
+
+    public BatchProcessor(TextParser parser, List<TextOperation> operations) {
+        this(parser, operations, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * @param parser парсер документов
+     * @param operations операции, выполняемые над каждым документом
+     * @param maxConcurrency максимальное количество одновременно обрабатываемых файлов
+     */
+    public BatchProcessor(TextParser parser, List<TextOperation> operations, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive: " + maxConcurrency);
+        }
+        this.parser = parser;
+        this.operations = List.copyOf(operations);
+        this.executor = new FusedOperationExecutor(this.operations);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Обрабатывает файл или все обычные файлы каталога (рекурсивно, в порядке имен)
+     */
+    public BatchResult process(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return process(List.of(path));
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return process(files.filter(Files::isRegularFile).sorted().toList());
+        }
+    }
+
+    /**
+     * Обрабатывает список файлов; ошибки отдельных файлов попадают в результат.
+     * Ошибка виртуальной машины (например, нехватка памяти) прекращает обработку
+     * и пробрасывается вызывающему коду.
+     */
+    public BatchResult process(List<Path> files) {
+        FileResult[] results = new FileResult[files.size()];
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicReference<VirtualMachineError> fatal = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < results.length; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        if (fatal.get() == null) {
+                            results[index] = processFile(files.get(index));
+                        }
+                    } catch (VirtualMachineError e) {
+                        // Иначе ошибка осталась бы в Future задачи
+                        fatal.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (fatal.get() != null) {
+            throw fatal.get();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        BatchResult batchResult = new BatchResult(new ArrayList<>(Arrays.asList(results)), elapsed);
+        logger.info("Processed {} files ({} failed) in {} ms",
+                batchResult.getFileCount(), batchResult.getFailureCount(), elapsed / 1_000_000);
+        return batchResult;
+    }
+
+    private FileResult processFile(Path file) {
+        long start = System.nanoTime();
+        long size = 0;
+        try {
+            size = Files.size(file);
+            TextComponent document = parser.parse(file);
+            // Все операции получают данные от одного обхода документа
+            List<String> results = executor.execute(document);
+            Map<String, String> operationResults = new LinkedHashMap<>();
+            for (int i = 0; i < operations.size(); i++) {
+                operationResults.put(operations.get(i).getName(), results.get(i));
+            }
+            FILE_TIME.recordSince(start);
+            return new FileResult(file, size, System.nanoTime() - start, operationResults, null);
+        } catch (IOException | RuntimeException | StackOverflowError e) {
+            // Переполнение стека при разборе слишком глубокого документа относится к этому файлу;
+            // остальные ошибки виртуальной машины прерывают весь пакет
+            logger.warn("Failed to process {}: {}", file, e.toString());
+            return new FileResult(file, size, System.nanoTime() - start, Map.of(), e);
+        }
+    }
+
+    /**
+     * Выполняет операцию, записывая время выполнения в гистограмму operation.&lt;класс&gt;.nanos
+     */
+    public static String execute(TextOperation operation, TextComponent document) {
+        long start = System.nanoTime();
+        String result = operation.execute(document);
+        MetricsRegistry.global().histogram("operation." + operation.getClass().getSimpleName() + ".nanos")
+                .recordSince(start);
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.texthandler.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Сводный результат пакетной обработки и показатели пропускной способности
+ */
+public class BatchResult {
+    private final List<FileResult> fileResults;
+    private final long elapsedNanos;
+
+    BatchResult(List<FileResult> fileResults, long elapsedNanos) {
+        this.fileResults = fileResults;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return результаты по файлам в порядке входного списка
+     */
+    public List<FileResult> getFileResults() {
+        return Collections.unmodifiableList(fileResults);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getFileCount() {
+        return fileResults.size();
+    }
+
+    public int getFailureCount() {
+        int failures = 0;
+        for (FileResult result : fileResults) {
+            if (!result.isSuccessful()) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    public long getTotalBytes() {
+        long bytes = 0;
+        for (FileResult result : fileResults) {
+            bytes += result.getSize();
+        }
+        return bytes;
+    }
+
+    public double getFilesPerSecond() {
+        return elapsedNanos > 0 ? fileResults.size() * 1e9 / elapsedNanos : 0;
+    }
+
+    public double getBytesPerSecond() {
+        return elapsedNanos > 0 ? getTotalBytes() * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * Краткий отчет: количество файлов и ошибок, объем и пропускная способность
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("=== Пакетная обработка ===\n");
+        report.append(String.format("Файлов: %d (ошибок: %d)\n", getFileCount(), getFailureCount()));
+        report.append(String.format("Объем: %.2f МБ\n", getTotalBytes() / (1024.0 * 1024.0)));
+        report.append(String.format("Время: %.3f с\n", elapsedNanos / 1e9));
+        report.append(String.format("Пропускная способность: %.1f файлов/с, %.2f МБ/с\n",
+                getFilesPerSecond(), getBytesPerSecond() / (1024.0 * 1024.0)));
+        for (FileResult result : fileResults) {
+            if (!result.isSuccessful()) {
+                Throwable error = result.getError();
+                report.append(String.format("Ошибка %s: %s\n", result.getPath(),
+                        error.getMessage() != null ? error.getMessage() : error.toString()));
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.texthandler.batch;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Результат обработки одного файла: выводы операций по их названиям или ошибка
+ */
+public class FileResult {
+    private final Path path;
+    private final long size;
+    private final long elapsedNanos;
+    private final Map<String, String> operationResults;
+    private final Throwable error;
+
+    FileResult(Path path, long size, long elapsedNanos, Map<String, String> operationResults, Throwable error) {
+        this.path = path;
+        this.size = size;
+        this.elapsedNanos = elapsedNanos;
+        this.operationResults = operationResults;
+        this.error = error;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return размер файла в байтах
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return время чтения, разбора и выполнения операций
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return выводы операций в порядке их выполнения (пусто, если обработка не удалась)
+     */
+    public Map<String, String> getOperationResults() {
+        return Collections.unmodifiableMap(operationResults);
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    /**
+     * @return ошибка обработки или null
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
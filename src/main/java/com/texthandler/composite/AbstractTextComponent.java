@@ -1,15 +1,26 @@
 package com.texthandler.composite;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * Абстрактная реализация компонента текста
+ * Абстрактная реализация компонента текста.
+ * Компонент запоминает владельца - составной компонент, в который он был добавлен первым.
+ * Об изменениях сообщается владельцу и выше по цепочке, чтобы сбросить кэши
+ * восстановленного текста и статистики.
+ * Если в поддерево добавлен компонент другого владельца или изменяемый компонент другой
+ * реализации, изменения в нем не отслеживаются, и поддерево перестает кэшировать результат.
  */
 public abstract class AbstractTextComponent implements TextComponent {
     protected List<TextComponent> children = new ArrayList<>();
     protected String content;
     protected TextComponentType type;
+    private AbstractTextComponent owner;
+    private boolean shared;
 
     public AbstractTextComponent(TextComponentType type) {
         this.type = type;
@@ -18,11 +29,19 @@ public abstract class AbstractTextComponent implements TextComponent {
     @Override
     public void add(TextComponent component) {
         children.add(component);
+        adopt(component);
+        invalidateCaches();
     }
 
     @Override
     public void remove(TextComponent component) {
-        children.remove(component);
+        if (children.remove(component)) {
+            if (component instanceof AbstractTextComponent child && child.owner == this
+                    && !children.contains(component)) {
+                child.owner = null;
+            }
+            invalidateCaches();
+        }
     }
 
     @Override
@@ -35,6 +54,27 @@ public abstract class AbstractTextComponent implements TextComponent {
         return new ArrayList<>(children);
     }
 
+    @Override
+    public int getChildCount() {
+        return children.size();
+    }
+
+    @Override
+    public List<TextComponent> getChildrenView() {
+        return Collections.unmodifiableList(children);
+    }
+
+    @Override
+    public void forEachDescendant(TextComponentType type, Consumer<? super TextComponent> consumer) {
+        if (this.type == type) {
+            consumer.accept(this);
+            return;
+        }
+        for (int i = 0, count = children.size(); i < count; i++) {
+            children.get(i).forEachDescendant(type, consumer);
+        }
+    }
+
     @Override
     public String getContent() {
         return content;
@@ -43,6 +83,7 @@ public abstract class AbstractTextComponent implements TextComponent {
     @Override
     public void setContent(String content) {
         this.content = content;
+        invalidateCaches();
     }
 
     @Override
@@ -55,11 +96,107 @@ public abstract class AbstractTextComponent implements TextComponent {
         if (children.isEmpty()) {
             return content != null ? content : "";
         }
-        
-        StringBuilder sb = new StringBuilder();
-        for (TextComponent child : children) {
-            sb.append(child.restore());
+        return restoreToString(this);
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        if (children.isEmpty()) {
+            if (content != null) {
+                out.append(content);
+            }
+            return;
+        }
+        for (int i = 0, count = children.size(); i < count; i++) {
+            children.get(i).restoreTo(out);
+        }
+    }
+
+    @Override
+    public int getRestoredLength() {
+        if (children.isEmpty()) {
+            return content != null ? content.length() : 0;
+        }
+        int length = 0;
+        for (int i = 0, count = children.size(); i < count; i++) {
+            length += children.get(i).getRestoredLength();
+        }
+        return length;
+    }
+
+    /**
+     * Добавляет несколько дочерних элементов одним изменением списка
+     */
+    void addChildren(List<? extends TextComponent> components) {
+        children.addAll(components);
+        for (TextComponent component : components) {
+            adopt(component);
+        }
+        invalidateCaches();
+    }
+
+    /**
+     * Переносит дочерние элементы другого компонента вместе с правом владения ими;
+     * исходный компонент после этого больше не используется
+     */
+    public void moveChildrenFrom(TextComponent source) {
+        for (TextComponent child : source.getChildrenView()) {
+            if (child instanceof AbstractTextComponent component && component.owner == source) {
+                component.owner = null;
+            }
+            children.add(child);
+            adopt(child);
+        }
+        invalidateCaches();
+    }
+
+    /**
+     * @return true, если все изменения в поддереве доходят до этого компонента и его можно кэшировать
+     */
+    protected boolean isCacheable() {
+        return !shared;
+    }
+
+    /**
+     * Сбрасывает кэши компонента и его владельцев
+     */
+    protected void invalidateCaches() {
+        if (owner != null) {
+            owner.invalidateCaches();
+        }
+    }
+
+    /**
+     * Восстанавливает текст компонента в буфер точного размера
+     */
+    protected static String restoreToString(TextComponent component) {
+        StringBuilder sb = new StringBuilder(component.getRestoredLength());
+        try {
+            component.restoreTo(sb);
+        } catch (IOException e) {
+            // StringBuilder не выбрасывает IOException
+            throw new UncheckedIOException(e);
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    private void adopt(TextComponent component) {
+        if (component instanceof AbstractTextComponent child) {
+            if (child.owner == null) {
+                child.owner = this;
+            }
+            if (child.owner != this || child.shared) {
+                markShared();
+            }
+        } else if (!PersistentTextNode.isImmutable(component) && !(component instanceof ColumnarDocument.Node)) {
+            // Изменения компонентов других реализаций не отслеживаются
+            markShared();
+        }
+    }
+
+    private void markShared() {
+        for (AbstractTextComponent node = this; node != null && !node.shared; node = node.owner) {
+            node.shared = true;
+        }
+    }
+}
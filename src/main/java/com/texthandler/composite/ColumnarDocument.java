@@ -0,0 +1,419 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Компактное колоночное представление документа (структура массивов).
+ * Узлы хранятся в порядке прямого обхода, поэтому поддерево узла i занимает
+ * непрерывный диапазон [i, subtreeEnd(i)). Для каждого узла хранятся тип,
+ * родитель, количество дочерних узлов, конец поддерева и смещение содержимого в общем тексте;
+ * дочерние узлы всех узлов записаны подряд в одном массиве. Первый потомок и следующий брат
+ * вычисляются по порядку прямого обхода и не хранятся.
+ * Совместимость с остальным кодом обеспечивают легковесные представления {@link Node},
+ * реализующие {@link TextComponent}; документ доступен только для чтения.
+ */
+public class ColumnarDocument {
+    private static final TextComponentType[] TYPES = TextComponentType.values();
+
+    private final byte[] types;
+    private final int[] parents;
+    private final int[] childCounts;
+    private final int[] subtreeEnds;
+    private final int[] contentStarts;
+    private final int[] contentLengths;
+    // Дочерние узлы подряд: дети узла i занимают childList[childStarts[i], childStarts[i] + childCounts[i])
+    private final int[] childStarts;
+    private final int[] childList;
+    private final String text;
+    private final int nodeCount;
+
+    private ColumnarDocument(Builder builder) {
+        this.nodeCount = builder.nodeCount;
+        this.types = Arrays.copyOf(builder.types, nodeCount);
+        this.parents = Arrays.copyOf(builder.parents, nodeCount);
+        this.childCounts = Arrays.copyOf(builder.childCounts, nodeCount);
+        this.subtreeEnds = Arrays.copyOf(builder.subtreeEnds, nodeCount);
+        this.contentStarts = Arrays.copyOf(builder.contentStarts, nodeCount);
+        this.contentLengths = Arrays.copyOf(builder.contentLengths, nodeCount);
+        this.text = builder.text.toString();
+
+        this.childStarts = new int[nodeCount];
+        this.childList = new int[Math.max(nodeCount - 1, 0)];
+        int position = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            childStarts[node] = position;
+            // Первый потомок следует сразу за узлом, следующий брат - сразу за поддеревом потомка
+            for (int child = node + 1; child < subtreeEnds[node]; child = subtreeEnds[child]) {
+                childList[position++] = child;
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Копирует произвольное дерево компонентов в колоночное представление
+     */
+    public static ColumnarDocument copyOf(TextComponent component) {
+        Builder builder = new Builder();
+        copy(component, builder);
+        return builder.build();
+    }
+
+    private static void copy(TextComponent component, Builder builder) {
+        int childCount = component.getChildCount();
+        if (childCount == 0 && component.getContent() != null) {
+            String content = component.getContent();
+            builder.addLeaf(component.getType(), content, 0, content.length());
+            return;
+        }
+        builder.startComposite(component.getType());
+        for (int i = 0; i < childCount; i++) {
+            copy(component.getChild(i), builder);
+        }
+        builder.endComposite();
+    }
+
+    public Node root() {
+        if (nodeCount == 0) {
+            throw new IllegalStateException("Document is empty");
+        }
+        return new Node(0);
+    }
+
+    public Node node(int index) {
+        if (index < 0 || index >= nodeCount) {
+            throw new IndexOutOfBoundsException("Node " + index + " of " + nodeCount);
+        }
+        return new Node(index);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public TextComponentType type(int node) {
+        return TYPES[types[node]];
+    }
+
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @return индекс первого дочернего узла или -1
+     */
+    public int firstChild(int node) {
+        return childCounts[node] > 0 ? node + 1 : -1;
+    }
+
+    /**
+     * @return индекс следующего узла того же родителя или -1
+     */
+    public int nextSibling(int node) {
+        int parent = parents[node];
+        int next = subtreeEnds[node];
+        return parent >= 0 && next < subtreeEnds[parent] ? next : -1;
+    }
+
+    public int childCount(int node) {
+        return childCounts[node];
+    }
+
+    /**
+     * @return индекс дочернего узла с заданным номером
+     */
+    public int child(int node, int childIndex) {
+        if (childIndex < 0 || childIndex >= childCounts[node]) {
+            throw new IndexOutOfBoundsException("Index " + childIndex + " out of bounds for length " + childCounts[node]);
+        }
+        return childList[childStarts[node] + childIndex];
+    }
+
+    /**
+     * @return индекс за последним узлом поддерева
+     */
+    public int subtreeEnd(int node) {
+        return subtreeEnds[node];
+    }
+
+    /**
+     * @return длина содержимого листа или -1, если содержимого нет
+     */
+    public int contentLength(int node) {
+        return contentLengths[node];
+    }
+
+    public String content(int node) {
+        int start = contentStarts[node];
+        return start < 0 ? null : text.substring(start, start + contentLengths[node]);
+    }
+
+    /**
+     * Перебирает узлы заданного типа внутри поддерева без создания объектов
+     */
+    public void forEachOfType(int node, TextComponentType type, IntConsumer consumer) {
+        byte ordinal = (byte) type.ordinal();
+        int end = subtreeEnds[node];
+        for (int i = node; i < end; i++) {
+            if (types[i] == ordinal) {
+                consumer.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Количество узлов заданного типа внутри поддерева
+     */
+    public int countOfType(int node, TextComponentType type) {
+        byte ordinal = (byte) type.ordinal();
+        int end = subtreeEnds[node];
+        int count = 0;
+        for (int i = node; i < end; i++) {
+            if (types[i] == ordinal) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void restore(int node, Appendable out) throws IOException {
+        int count = childCounts[node];
+        if (count == 0) {
+            if (contentStarts[node] >= 0) {
+                out.append(text, contentStarts[node], contentStarts[node] + contentLengths[node]);
+            }
+            return;
+        }
+        for (int position = childStarts[node], end = position + count; position < end; position++) {
+            restore(childList[position], out);
+            if (needsSeparator(node, position + 1, end)) {
+                out.append(' ');
+            }
+        }
+    }
+
+    private int restoredLength(int node) {
+        int count = childCounts[node];
+        if (count == 0) {
+            return Math.max(contentLengths[node], 0);
+        }
+        int length = 0;
+        for (int position = childStarts[node], end = position + count; position < end; position++) {
+            length += restoredLength(childList[position]);
+            if (needsSeparator(node, position + 1, end)) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Те же правила разделителей, что и в TextComposite: пробел в предложении перед словом или лексемой
+     * @param next позиция следующего дочернего узла в childList
+     * @param end позиция за последним дочерним узлом
+     */
+    private boolean needsSeparator(int node, int next, int end) {
+        if (types[node] != TextComponentType.SENTENCE.ordinal() || next >= end) {
+            return false;
+        }
+        byte nextType = types[childList[next]];
+        return nextType == TextComponentType.WORD.ordinal() || nextType == TextComponentType.LEXEME.ordinal();
+    }
+
+    /**
+     * Представление узла документа как компонента текста
+     */
+    public class Node implements TextComponent {
+        private final int index;
+
+        private Node(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public ColumnarDocument getDocument() {
+            return ColumnarDocument.this;
+        }
+
+        @Override
+        public void add(TextComponent component) {
+            throw new UnsupportedOperationException("Columnar document is read-only");
+        }
+
+        @Override
+        public void remove(TextComponent component) {
+            throw new UnsupportedOperationException("Columnar document is read-only");
+        }
+
+        @Override
+        public TextComponent getChild(int childIndex) {
+            return new Node(child(index, childIndex));
+        }
+
+        @Override
+        public int getChildCount() {
+            return childCounts[index];
+        }
+
+        @Override
+        public void forEachDescendant(TextComponentType type, Consumer<? super TextComponent> consumer) {
+            // Типы уровней не вкладываются друг в друга, поэтому достаточно просмотра массива типов
+            forEachOfType(index, type, node -> consumer.accept(new Node(node)));
+        }
+
+        @Override
+        public List<TextComponent> getChildren() {
+            int start = childStarts[index];
+            List<TextComponent> children = new ArrayList<>(childCounts[index]);
+            for (int position = start, end = start + childCounts[index]; position < end; position++) {
+                children.add(new Node(childList[position]));
+            }
+            return children;
+        }
+
+        @Override
+        public String getContent() {
+            return content(index);
+        }
+
+        @Override
+        public void setContent(String content) {
+            throw new UnsupportedOperationException("Columnar document is read-only");
+        }
+
+        @Override
+        public TextComponentType getType() {
+            return type(index);
+        }
+
+        @Override
+        public String restore() {
+            StringBuilder sb = new StringBuilder(restoredLength(index));
+            try {
+                ColumnarDocument.this.restore(index, sb);
+            } catch (IOException e) {
+                // StringBuilder не выбрасывает IOException
+                throw new UncheckedIOException(e);
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public void restoreTo(Appendable out) throws IOException {
+            ColumnarDocument.this.restore(index, out);
+        }
+
+        @Override
+        public int getRestoredLength() {
+            return restoredLength(index);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Node other && other.getDocument() == getDocument() && other.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(getDocument()) * 31 + index;
+        }
+    }
+
+    /**
+     * Построитель колоночного документа по событиям разбора
+     */
+    public static class Builder implements TextTreeBuilder<ColumnarDocument> {
+        private byte[] types = new byte[64];
+        private int[] parents = new int[64];
+        private int[] childCounts = new int[64];
+        private int[] subtreeEnds = new int[64];
+        private int[] contentStarts = new int[64];
+        private int[] contentLengths = new int[64];
+        private final StringBuilder text = new StringBuilder();
+        private int nodeCount;
+
+        private int[] openNodes = new int[16];
+        private int depth;
+
+        @Override
+        public void startComposite(TextComponentType type) {
+            int node = appendNode(type, -1, -1);
+            if (depth == openNodes.length) {
+                openNodes = Arrays.copyOf(openNodes, depth * 2);
+            }
+            openNodes[depth] = node;
+            depth++;
+        }
+
+        @Override
+        public void addLeaf(TextComponentType type, CharSequence source, int start, int end) {
+            int contentStart = text.length();
+            text.append(source, start, end);
+            int node = appendNode(type, contentStart, end - start);
+            subtreeEnds[node] = node + 1;
+        }
+
+        @Override
+        public void endComposite() {
+            if (depth == 0) {
+                throw new IllegalStateException("No composite to end");
+            }
+            depth--;
+            subtreeEnds[openNodes[depth]] = nodeCount;
+        }
+
+        @Override
+        public ColumnarDocument build() {
+            if (depth != 0) {
+                throw new IllegalStateException("Unfinished composite: " + TYPES[types[openNodes[depth - 1]]]);
+            }
+            return new ColumnarDocument(this);
+        }
+
+        private int appendNode(TextComponentType type, int contentStart, int contentLength) {
+            if (depth == 0 && nodeCount > 0) {
+                throw new IllegalStateException("Document already has a root");
+            }
+            ensureCapacity();
+            int node = nodeCount++;
+            types[node] = (byte) type.ordinal();
+            childCounts[node] = 0;
+            contentStarts[node] = contentStart;
+            contentLengths[node] = contentLength;
+
+            if (depth == 0) {
+                parents[node] = -1;
+            } else {
+                int parent = openNodes[depth - 1];
+                parents[node] = parent;
+                childCounts[parent]++;
+            }
+            return node;
+        }
+
+        private void ensureCapacity() {
+            if (nodeCount < types.length) {
+                return;
+            }
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            childCounts = Arrays.copyOf(childCounts, capacity);
+            subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+            contentStarts = Arrays.copyOf(contentStarts, capacity);
+            contentLengths = Arrays.copyOf(contentLengths, capacity);
+        }
+    }
+}
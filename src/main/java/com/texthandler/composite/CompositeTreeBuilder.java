@@ -0,0 +1,60 @@
+package com.texthandler.composite;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Построитель дерева из {@link TextComposite} и листьев, создаваемых фабрикой
+ */
+public class CompositeTreeBuilder implements TextTreeBuilder<TextComponent> {
+    private final LeafFactory leafFactory;
+    private final Deque<TextComponent> path = new ArrayDeque<>();
+    private TextComponent root;
+
+    public CompositeTreeBuilder() {
+        this(LeafFactory.copying());
+    }
+
+    public CompositeTreeBuilder(LeafFactory leafFactory) {
+        this.leafFactory = leafFactory;
+    }
+
+    @Override
+    public void startComposite(TextComponentType type) {
+        TextComponent composite = new TextComposite(type);
+        attach(composite);
+        path.push(composite);
+    }
+
+    @Override
+    public void addLeaf(TextComponentType type, CharSequence source, int start, int end) {
+        attach(leafFactory.createLeaf(type, source, start, end));
+    }
+
+    @Override
+    public void endComposite() {
+        if (path.isEmpty()) {
+            throw new IllegalStateException("No composite to end");
+        }
+        path.pop();
+    }
+
+    @Override
+    public TextComponent build() {
+        if (!path.isEmpty()) {
+            throw new IllegalStateException("Unfinished composite: " + path.peek().getType());
+        }
+        return root;
+    }
+
+    private void attach(TextComponent component) {
+        if (path.isEmpty()) {
+            if (root != null) {
+                throw new IllegalStateException("Document already has a root");
+            }
+            root = component;
+        } else {
+            path.peek().add(component);
+        }
+    }
+}
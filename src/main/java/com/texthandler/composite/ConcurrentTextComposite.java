@@ -0,0 +1,162 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Составной компонент для одновременного чтения и редактирования из разных потоков.
+ * <p>
+ * Гарантии:
+ * <ul>
+ *     <li>чтение не блокируется: дочерние элементы хранятся в списке с копированием при записи,
+ *     обход дочерних элементов узла видит согласованный снимок без ConcurrentModificationException;</li>
+ *     <li>изменения одного узла (add, remove, setContent) выполняются под блокировкой этого узла,
+ *     изменения разных узлов друг друга не ждут;</li>
+ *     <li>{@link #snapshot()} возвращает неизменяемую копию поддерева, в которую вошли все
+ *     изменения, завершенные до вызова; снимок узла согласован, но изменения, идущие во время
+ *     построения снимка, могут попасть в одни абзацы и не попасть в другие.</li>
+ * </ul>
+ * Восстановленный текст и статистика берутся из снимка, который кэшируется вместе с номером
+ * версии узла; после изменения заново копируется только путь от измененного узла к корню.
+ * Операции, обходящие документ по индексам, следует выполнять над снимком: индексы живого узла
+ * могут устареть из-за параллельного удаления.
+ * Листья, созданные {@link #copyOf}, - {@link ConcurrentTextLeaf}: их setContent тоже меняет версии владельцев.
+ */
+public class ConcurrentTextComposite extends AbstractTextComponent {
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public ConcurrentTextComposite(TextComponentType type) {
+        super(type);
+        this.children = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Копия документа, в которой составные компоненты заменены на {@link ConcurrentTextComposite},
+     * а листья - на {@link ConcurrentTextLeaf}
+     */
+    public static ConcurrentTextComposite copyOf(TextComponent component) {
+        ConcurrentTextComposite copy = new ConcurrentTextComposite(component.getType());
+        int childCount = component.getChildCount();
+        if (childCount == 0) {
+            copy.content = component.getContent();
+            return copy;
+        }
+        List<TextComponent> copiedChildren = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            TextComponent child = component.getChild(i);
+            if (isLeafType(child.getType())) {
+                copiedChildren.add(new ConcurrentTextLeaf(child.getType(), child.getContent()));
+            } else {
+                copiedChildren.add(copyOf(child));
+            }
+        }
+        // Один раз копируем массив вместо копирования при каждом добавлении
+        copy.addChildren(copiedChildren);
+        return copy;
+    }
+
+    @Override
+    public synchronized void add(TextComponent component) {
+        super.add(component);
+    }
+
+    @Override
+    public synchronized void remove(TextComponent component) {
+        super.remove(component);
+    }
+
+    @Override
+    public synchronized void setContent(String content) {
+        super.setContent(content);
+    }
+
+    /**
+     * Неизменяемый снимок поддерева; неизмененные поддеревья берутся из предыдущих снимков
+     */
+    public PersistentTextNode snapshot() {
+        // Версия читается до данных: изменение, завершенное после чтения, сделает снимок устаревшим
+        long current = version.get();
+        Snapshot cached = snapshot;
+        if (cached != null && cached.version() == current) {
+            return cached.node();
+        }
+
+        PersistentTextNode node;
+        if (children.isEmpty()) {
+            node = PersistentTextNode.leaf(type, content);
+        } else {
+            List<TextComponent> copiedChildren = new ArrayList<>(children.size());
+            for (TextComponent child : children) {
+                if (child instanceof ConcurrentTextComposite composite) {
+                    copiedChildren.add(composite.snapshot());
+                } else if (child instanceof ConcurrentTextLeaf leaf) {
+                    copiedChildren.add(leaf.snapshot());
+                } else {
+                    copiedChildren.add(PersistentTextNode.copyOf(child));
+                }
+            }
+            node = PersistentTextNode.composite(type, copiedChildren);
+        }
+
+        if (isCacheable()) {
+            snapshot = new Snapshot(current, node);
+        }
+        return node;
+    }
+
+    @Override
+    public List<TextComponent> getChildren() {
+        return new ArrayList<>(children);
+    }
+
+    @Override
+    public void forEachDescendant(TextComponentType type, Consumer<? super TextComponent> consumer) {
+        if (this.type == type) {
+            consumer.accept(this);
+            return;
+        }
+        for (TextComponent child : children) {
+            child.forEachDescendant(type, consumer);
+        }
+    }
+
+    @Override
+    public String restore() {
+        return snapshot().restore();
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        snapshot().restoreTo(out);
+    }
+
+    @Override
+    public int getRestoredLength() {
+        return snapshot().getRestoredLength();
+    }
+
+    @Override
+    public TextStatistics getStatistics() {
+        return snapshot().getStatistics();
+    }
+
+    @Override
+    protected void invalidateCaches() {
+        version.incrementAndGet();
+        super.invalidateCaches();
+    }
+
+    private static boolean isLeafType(TextComponentType type) {
+        return type == TextComponentType.WORD
+                || type == TextComponentType.PUNCTUATION
+                || type == TextComponentType.SYMBOL;
+    }
+
+    private record Snapshot(long version, PersistentTextNode node) {
+    }
+}
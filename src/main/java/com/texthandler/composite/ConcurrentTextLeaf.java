@@ -0,0 +1,56 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+
+/**
+ * Лист для {@link ConcurrentTextComposite}: содержимое хранится в неизменяемом узле, который
+ * заменяется целиком при setContent, поэтому читатели в других потоках видят либо старое,
+ * либо новое содержимое. Изменение сообщается владельцам и меняет версии их снимков.
+ */
+public class ConcurrentTextLeaf extends TextLeaf {
+    private volatile PersistentTextNode node;
+
+    public ConcurrentTextLeaf(TextComponentType type, String content) {
+        super(type, content);
+        this.node = PersistentTextNode.leaf(type, content);
+    }
+
+    @Override
+    public synchronized void setContent(String content) {
+        // Узел заменяется до изменения версий владельцев
+        node = PersistentTextNode.leaf(type, content);
+        super.setContent(content);
+    }
+
+    @Override
+    public String getContent() {
+        return node.getContent();
+    }
+
+    @Override
+    public String restore() {
+        return node.restore();
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        node.restoreTo(out);
+    }
+
+    @Override
+    public int getRestoredLength() {
+        return node.getRestoredLength();
+    }
+
+    @Override
+    public TextStatistics getStatistics() {
+        return node.getStatistics();
+    }
+
+    /**
+     * @return неизменяемый узел с текущим содержимым
+     */
+    PersistentTextNode snapshot() {
+        return node;
+    }
+}
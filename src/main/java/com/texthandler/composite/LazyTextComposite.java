@@ -0,0 +1,118 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Составной компонент, дочерние элементы которого разбираются при первом обращении.
+ * Загрузчик возвращает компонент того же типа; его дочерние элементы переносятся
+ * в этот узел один раз, повторные и параллельные обращения используют готовый результат.
+ */
+public class LazyTextComposite extends TextComposite {
+    private volatile Supplier<? extends TextComponent> loader;
+
+    /**
+     * @param type тип компонента
+     * @param loader разбор содержимого узла, вызывается не более одного раза
+     */
+    public LazyTextComposite(TextComponentType type, Supplier<? extends TextComponent> loader) {
+        super(type);
+        this.loader = loader;
+    }
+
+    /**
+     * @return true, если дочерние элементы уже разобраны
+     */
+    public boolean isLoaded() {
+        return loader == null;
+    }
+
+    @Override
+    public void add(TextComponent component) {
+        load();
+        super.add(component);
+    }
+
+    @Override
+    public void remove(TextComponent component) {
+        load();
+        super.remove(component);
+    }
+
+    @Override
+    public TextComponent getChild(int index) {
+        load();
+        return super.getChild(index);
+    }
+
+    @Override
+    public List<TextComponent> getChildren() {
+        load();
+        return super.getChildren();
+    }
+
+    @Override
+    public int getChildCount() {
+        load();
+        return super.getChildCount();
+    }
+
+    @Override
+    public List<TextComponent> getChildrenView() {
+        load();
+        return super.getChildrenView();
+    }
+
+    @Override
+    public void forEachDescendant(TextComponentType type, Consumer<? super TextComponent> consumer) {
+        if (this.type != type) {
+            load();
+        }
+        super.forEachDescendant(type, consumer);
+    }
+
+    @Override
+    public String restore() {
+        load();
+        return super.restore();
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        load();
+        super.restoreTo(out);
+    }
+
+    @Override
+    public int getRestoredLength() {
+        load();
+        return super.getRestoredLength();
+    }
+
+    @Override
+    public TextStatistics getStatistics() {
+        load();
+        return super.getStatistics();
+    }
+
+    private void load() {
+        if (loader == null) {
+            return;
+        }
+        synchronized (this) {
+            Supplier<? extends TextComponent> pending = loader;
+            if (pending == null) {
+                return;
+            }
+            TextComponent parsed = pending.get();
+            if (parsed.getType() != type) {
+                throw new IllegalStateException("Lazy " + type + " loaded as " + parsed.getType());
+            }
+            moveChildrenFrom(parsed);
+            // Запись в volatile-поле публикует дочерние элементы для других потоков
+            loader = null;
+        }
+    }
+}
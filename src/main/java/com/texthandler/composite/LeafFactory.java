@@ -0,0 +1,43 @@
+package com.texthandler.composite;
+
+/**
+ * Фабрика листовых компонентов по фрагменту исходного текста
+ */
+@FunctionalInterface
+public interface LeafFactory {
+    /**
+     * Создать лист для фрагмента [start, end) исходного текста
+     */
+    TextComponent createLeaf(TextComponentType type, CharSequence source, int start, int end);
+
+    /**
+     * Листья с собственной копией строки ({@link TextLeaf})
+     */
+    static LeafFactory copying() {
+        return (type, source, start, end) -> new TextLeaf(type, source.subSequence(start, end).toString());
+    }
+
+    /**
+     * Листья, хранящие только смещения в общем буфере документа ({@link SpanTextLeaf})
+     */
+    static LeafFactory spans() {
+        return SpanTextLeaf::new;
+    }
+
+    /**
+     * Слова и знаки препинания берутся из таблицы символов ({@link SymbolLeaf}),
+     * остальные листья и токены, не поместившиеся в ограниченную таблицу, копируются
+     */
+    static LeafFactory interning(SymbolTable symbolTable) {
+        LeafFactory fallback = copying();
+        return (type, source, start, end) -> {
+            if (type == TextComponentType.WORD || type == TextComponentType.PUNCTUATION) {
+                SymbolLeaf symbol = symbolTable.intern(type, source.subSequence(start, end).toString());
+                if (symbol != null) {
+                    return symbol;
+                }
+            }
+            return fallback.createLeaf(type, source, start, end);
+        };
+    }
+}
@@ -0,0 +1,282 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Неизменяемый компонент текста с разделением структуры.
+ * Преобразования не меняют узел, а возвращают новый, который ссылается на все
+ * неизмененные поддеревья исходного; производный документ стоит только измененного пути.
+ * Дочерние элементы - только неизменяемые компоненты ({@link PersistentTextNode}, {@link SymbolLeaf}),
+ * поэтому одно дерево можно без блокировок читать из нескольких потоков.
+ * Восстановленный текст и статистика вычисляются при первом обращении; гонка при их
+ * записи безопасна - все потоки получают равные неизменяемые значения.
+ */
+public final class PersistentTextNode implements TextComponent {
+    private static final TextComponent[] NO_CHILDREN = new TextComponent[0];
+
+    private final TextComponentType type;
+    private final String content;
+    private final TextComponent[] children;
+    private final List<TextComponent> childrenView;
+    private String restoreCache;
+    private TextStatistics statistics;
+
+    private PersistentTextNode(TextComponentType type, String content, TextComponent[] children) {
+        this.type = type;
+        this.content = content;
+        this.children = children;
+        this.childrenView = Collections.unmodifiableList(Arrays.asList(children));
+    }
+
+    /**
+     * Лист с заданным содержимым
+     */
+    public static PersistentTextNode leaf(TextComponentType type, String content) {
+        return new PersistentTextNode(type, content, NO_CHILDREN);
+    }
+
+    /**
+     * Составной компонент; изменяемые дочерние элементы копируются
+     */
+    public static PersistentTextNode composite(TextComponentType type, List<? extends TextComponent> children) {
+        TextComponent[] copy = new TextComponent[children.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = copyOf(children.get(i));
+        }
+        return new PersistentTextNode(type, null, copy);
+    }
+
+    /**
+     * Неизменяемая копия произвольного компонента; неизменяемые поддеревья не копируются
+     */
+    public static TextComponent copyOf(TextComponent component) {
+        if (isImmutable(component)) {
+            return component;
+        }
+        int childCount = component.getChildCount();
+        if (childCount == 0) {
+            return new PersistentTextNode(component.getType(), component.getContent(), NO_CHILDREN);
+        }
+        TextComponent[] copy = new TextComponent[childCount];
+        for (int i = 0; i < childCount; i++) {
+            copy[i] = copyOf(component.getChild(i));
+        }
+        return new PersistentTextNode(component.getType(), null, copy);
+    }
+
+    static boolean isImmutable(TextComponent component) {
+        return component instanceof PersistentTextNode || component instanceof SymbolLeaf;
+    }
+
+    /**
+     * @return узел, в котором дочерний элемент с индексом index заменен
+     */
+    public PersistentTextNode withChild(int index, TextComponent child) {
+        TextComponent replacement = copyOf(child);
+        if (children[index] == replacement) {
+            return this;
+        }
+        TextComponent[] copy = children.clone();
+        copy[index] = replacement;
+        return new PersistentTextNode(type, null, copy);
+    }
+
+    /**
+     * @return узел с дочерним элементом, добавленным в конец
+     */
+    public PersistentTextNode withChildAdded(TextComponent child) {
+        TextComponent[] copy = Arrays.copyOf(children, children.length + 1);
+        copy[children.length] = copyOf(child);
+        return new PersistentTextNode(type, null, copy);
+    }
+
+    /**
+     * @return узел без дочернего элемента с индексом index
+     */
+    public PersistentTextNode withoutChild(int index) {
+        Objects.checkIndex(index, children.length);
+        TextComponent[] copy = new TextComponent[children.length - 1];
+        System.arraycopy(children, 0, copy, 0, index);
+        System.arraycopy(children, index + 1, copy, index, copy.length - index);
+        return new PersistentTextNode(type, null, copy);
+    }
+
+    /**
+     * @return узел, в котором оставлены только дочерние элементы, удовлетворяющие условию,
+     * или этот же узел, если ничего не удалено
+     */
+    public PersistentTextNode filterChildren(Predicate<? super TextComponent> predicate) {
+        List<TextComponent> kept = new ArrayList<>(children.length);
+        for (TextComponent child : children) {
+            if (predicate.test(child)) {
+                kept.add(child);
+            }
+        }
+        if (kept.size() == children.length) {
+            return this;
+        }
+        return new PersistentTextNode(type, null, kept.toArray(NO_CHILDREN));
+    }
+
+    /**
+     * Заменяет каждый дочерний элемент результатом функции.
+     * @return новый узел или этот же узел, если функция вернула все элементы без изменений
+     */
+    public PersistentTextNode mapChildren(UnaryOperator<TextComponent> mapper) {
+        TextComponent[] copy = null;
+        for (int i = 0; i < children.length; i++) {
+            TextComponent mapped = copyOf(mapper.apply(children[i]));
+            if (mapped != children[i]) {
+                if (copy == null) {
+                    copy = children.clone();
+                }
+                copy[i] = mapped;
+            }
+        }
+        return copy == null ? this : new PersistentTextNode(type, null, copy);
+    }
+
+    @Override
+    public void add(TextComponent component) {
+        throw new UnsupportedOperationException("Persistent component is immutable, use withChildAdded");
+    }
+
+    @Override
+    public void remove(TextComponent component) {
+        throw new UnsupportedOperationException("Persistent component is immutable, use withoutChild");
+    }
+
+    @Override
+    public TextComponent getChild(int index) {
+        return children[index];
+    }
+
+    @Override
+    public List<TextComponent> getChildren() {
+        return new ArrayList<>(childrenView);
+    }
+
+    @Override
+    public int getChildCount() {
+        return children.length;
+    }
+
+    @Override
+    public List<TextComponent> getChildrenView() {
+        return childrenView;
+    }
+
+    @Override
+    public String getContent() {
+        return content;
+    }
+
+    @Override
+    public void setContent(String content) {
+        throw new UnsupportedOperationException("Persistent component is immutable");
+    }
+
+    @Override
+    public TextComponentType getType() {
+        return type;
+    }
+
+    @Override
+    public String restore() {
+        String restored = restoreCache;
+        if (restored == null) {
+            if (children.length == 0) {
+                restored = content != null ? content : "";
+            } else {
+                restored = AbstractTextComponent.restoreToString(this);
+            }
+            restoreCache = restored;
+        }
+        return restored;
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        String cached = restoreCache;
+        if (cached != null) {
+            out.append(cached);
+            return;
+        }
+        if (children.length == 0) {
+            if (content != null) {
+                out.append(content);
+            }
+            return;
+        }
+        for (int i = 0; i < children.length; i++) {
+            children[i].restoreTo(out);
+            if (needsSeparator(i)) {
+                out.append(' ');
+            }
+        }
+    }
+
+    @Override
+    public int getRestoredLength() {
+        String cached = restoreCache;
+        if (cached != null) {
+            return cached.length();
+        }
+        if (children.length == 0) {
+            return content != null ? content.length() : 0;
+        }
+        int length = 0;
+        for (int i = 0; i < children.length; i++) {
+            length += children[i].getRestoredLength();
+            if (needsSeparator(i)) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public TextStatistics getStatistics() {
+        TextStatistics cached = statistics;
+        if (cached != null) {
+            return cached;
+        }
+        TextStatistics.Builder builder = new TextStatistics.Builder(type);
+        if (children.length == 0) {
+            builder.addContent(type, content);
+        } else {
+            for (int i = 0; i < children.length; i++) {
+                TextComponent child = children[i];
+                if (child.getChildCount() == 0) {
+                    builder.addContent(child.getType(), child.getContent());
+                } else {
+                    builder.add(child.getStatistics());
+                }
+                if (needsSeparator(i)) {
+                    builder.addCharacters(1);
+                }
+            }
+        }
+        TextStatistics result = builder.build();
+        statistics = result;
+        return result;
+    }
+
+    /**
+     * Разделители те же, что у {@link TextComposite}: пробел в предложении перед словом или лексемой
+     */
+    private boolean needsSeparator(int index) {
+        if (type != TextComponentType.SENTENCE || index >= children.length - 1) {
+            return false;
+        }
+        TextComponentType nextType = children[index + 1].getType();
+        return nextType == TextComponentType.WORD || nextType == TextComponentType.LEXEME;
+    }
+}
@@ -0,0 +1,55 @@
+package com.texthandler.composite;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Построитель неизменяемого дерева из {@link PersistentTextNode}.
+ * Дочерние элементы копятся в списке текущего компонента, а узел создается
+ * при завершении компонента, когда его содержимое уже известно.
+ */
+public class PersistentTreeBuilder implements TextTreeBuilder<PersistentTextNode> {
+    private final Deque<TextComponentType> types = new ArrayDeque<>();
+    private final Deque<List<TextComponent>> children = new ArrayDeque<>();
+    private PersistentTextNode root;
+
+    @Override
+    public void startComposite(TextComponentType type) {
+        if (types.isEmpty() && root != null) {
+            throw new IllegalStateException("Document already has a root");
+        }
+        types.push(type);
+        children.push(new ArrayList<>());
+    }
+
+    @Override
+    public void addLeaf(TextComponentType type, CharSequence source, int start, int end) {
+        if (children.isEmpty()) {
+            throw new IllegalStateException("Leaf outside of composite");
+        }
+        children.peek().add(PersistentTextNode.leaf(type, source.subSequence(start, end).toString()));
+    }
+
+    @Override
+    public void endComposite() {
+        if (types.isEmpty()) {
+            throw new IllegalStateException("No composite to end");
+        }
+        PersistentTextNode node = PersistentTextNode.composite(types.pop(), children.pop());
+        if (children.isEmpty()) {
+            root = node;
+        } else {
+            children.peek().add(node);
+        }
+    }
+
+    @Override
+    public PersistentTextNode build() {
+        if (!types.isEmpty()) {
+            throw new IllegalStateException("Unfinished composite: " + types.peek());
+        }
+        return root;
+    }
+}
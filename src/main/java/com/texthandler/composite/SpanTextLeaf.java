@@ -0,0 +1,103 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Листовой компонент, хранящий только смещение и длину фрагмента в общем буфере документа.
+ * Строка содержимого создается при каждом обращении и не удерживается листом.
+ */
+public class SpanTextLeaf implements TextComponent {
+    private final TextComponentType type;
+    private CharSequence source;
+    private int start;
+    private int length;
+
+    public SpanTextLeaf(TextComponentType type, CharSequence source, int start, int end) {
+        if (start < 0 || end < start || end > source.length()) {
+            throw new IndexOutOfBoundsException("Invalid span [" + start + ", " + end + ") of " + source.length());
+        }
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.length = end - start;
+    }
+
+    @Override
+    public void add(TextComponent component) {
+        throw new UnsupportedOperationException("Cannot add child to leaf component");
+    }
+
+    @Override
+    public void remove(TextComponent component) {
+        throw new UnsupportedOperationException("Cannot remove child from leaf component");
+    }
+
+    @Override
+    public TextComponent getChild(int index) {
+        throw new UnsupportedOperationException("Leaf component has no children");
+    }
+
+    @Override
+    public List<TextComponent> getChildren() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getChildCount() {
+        return 0;
+    }
+
+    @Override
+    public List<TextComponent> getChildrenView() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getContent() {
+        if (source == null) {
+            return null;
+        }
+        return source.subSequence(start, start + length).toString();
+    }
+
+    @Override
+    public void setContent(String content) {
+        // Новое содержимое становится собственным буфером листа
+        this.source = content;
+        this.start = 0;
+        this.length = content != null ? content.length() : 0;
+    }
+
+    @Override
+    public TextComponentType getType() {
+        return type;
+    }
+
+    @Override
+    public String restore() {
+        String content = getContent();
+        return content != null ? content : "";
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        if (source != null) {
+            out.append(source, start, start + length);
+        }
+    }
+
+    @Override
+    public int getRestoredLength() {
+        return source != null ? length : 0;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getLength() {
+        return length;
+    }
+}
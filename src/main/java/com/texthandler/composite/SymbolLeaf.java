@@ -0,0 +1,88 @@
+package com.texthandler.composite;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемый разделяемый лист (приспособленец): одно и то же слово или знак препинания
+ * хранится в таблице символов один раз и используется во всех местах документа
+ */
+public final class SymbolLeaf implements TextComponent {
+    private final TextComponentType type;
+    private final String content;
+    private final int id;
+
+    SymbolLeaf(TextComponentType type, String content, int id) {
+        this.type = type;
+        this.content = content;
+        this.id = id;
+    }
+
+    /**
+     * @return стабильный идентификатор символа в его таблице
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public void add(TextComponent component) {
+        throw new UnsupportedOperationException("Cannot add child to leaf component");
+    }
+
+    @Override
+    public void remove(TextComponent component) {
+        throw new UnsupportedOperationException("Cannot remove child from leaf component");
+    }
+
+    @Override
+    public TextComponent getChild(int index) {
+        throw new UnsupportedOperationException("Leaf component has no children");
+    }
+
+    @Override
+    public List<TextComponent> getChildren() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getChildCount() {
+        return 0;
+    }
+
+    @Override
+    public List<TextComponent> getChildrenView() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getContent() {
+        return content;
+    }
+
+    @Override
+    public void setContent(String content) {
+        throw new UnsupportedOperationException("Shared symbol leaf is immutable");
+    }
+
+    @Override
+    public TextComponentType getType() {
+        return type;
+    }
+
+    @Override
+    public String restore() {
+        return content;
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        out.append(content);
+    }
+
+    @Override
+    public int getRestoredLength() {
+        return content.length();
+    }
+}
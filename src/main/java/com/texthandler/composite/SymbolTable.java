@@ -0,0 +1,72 @@
+package com.texthandler.composite;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Таблица разделяемых листов: каждый различный токен (тип + содержимое) хранится один раз
+ * и получает плотный целочисленный идентификатор. Таблица потокобезопасна;
+ * ограниченная таблица после заполнения перестает добавлять новые символы.
+ */
+public class SymbolTable {
+    public static final int DEFAULT_GLOBAL_CAPACITY = 1 << 20;
+
+    private final Map<TextComponentType, Map<String, SymbolLeaf>> symbols = new EnumMap<>(TextComponentType.class);
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final int maxSize;
+
+    /**
+     * Неограниченная таблица (на один документ)
+     */
+    public SymbolTable() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxSize максимальное количество символов (для общей таблицы нескольких документов)
+     */
+    public SymbolTable(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Symbol table size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        for (TextComponentType type : TextComponentType.values()) {
+            symbols.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Общая ограниченная таблица для всех документов процесса
+     */
+    public static SymbolTable global() {
+        return GlobalHolder.INSTANCE;
+    }
+
+    /**
+     * @return разделяемый лист для токена или null, если таблица заполнена
+     */
+    public SymbolLeaf intern(TextComponentType type, String content) {
+        Map<String, SymbolLeaf> table = symbols.get(type);
+        SymbolLeaf symbol = table.get(content);
+        if (symbol != null || nextId.get() >= maxSize) {
+            return symbol;
+        }
+        return table.computeIfAbsent(content, key -> {
+            int id = nextId.getAndIncrement();
+            return id < maxSize ? new SymbolLeaf(type, key, id) : null;
+        });
+    }
+
+    /**
+     * @return количество символов в таблице
+     */
+    public int size() {
+        return Math.min(nextId.get(), maxSize);
+    }
+
+    private static class GlobalHolder {
+        static final SymbolTable INSTANCE = new SymbolTable(DEFAULT_GLOBAL_CAPACITY);
+    }
+}
@@ -1,6 +1,9 @@
 package com.texthandler.composite;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Базовый интерфейс для всех компонентов текста
@@ -14,4 +17,53 @@ public interface TextComponent {
     void setContent(String content);
     TextComponentType getType();
     String restore();
+
+    /**
+     * Записывает восстановленный текст за один проход, без промежуточных строк
+     */
+    default void restoreTo(Appendable out) throws IOException {
+        out.append(restore());
+    }
+
+    /**
+     * Точная длина восстановленного текста, используется для выделения буфера нужного размера
+     */
+    default int getRestoredLength() {
+        return restore().length();
+    }
+
+    /**
+     * Сводная статистика поддерева (слова, предложения, буквы)
+     */
+    default TextStatistics getStatistics() {
+        return TextStatistics.of(this);
+    }
+
+    /**
+     * Количество дочерних элементов без копирования списка
+     */
+    default int getChildCount() {
+        return getChildren().size();
+    }
+
+    /**
+     * Неизменяемое представление дочерних элементов без копирования
+     */
+    default List<TextComponent> getChildrenView() {
+        return Collections.unmodifiableList(getChildren());
+    }
+
+    /**
+     * Обходит поддерево (включая сам компонент) в прямом порядке и передает обработчику
+     * компоненты заданного типа. Внутрь найденного компонента обход не спускается.
+     */
+    default void forEachDescendant(TextComponentType type, Consumer<? super TextComponent> consumer) {
+        if (getType() == type) {
+            consumer.accept(this);
+            return;
+        }
+        for (int i = 0, count = getChildCount(); i < count; i++) {
+            getChild(i).forEachDescendant(type, consumer);
+        }
+    }
 }
\ No newline at end of file
@@ -1,35 +1,144 @@
 package com.texthandler.composite;
 
+import java.io.IOException;
+
 /**
- * Составной компонент текста (документ, абзац, предложение)
+ * Составной компонент текста (документ, абзац, предложение).
+ * Статистика кэшируется до первого изменения компонента или его поддерева; после изменения
+ * она пересчитывается только на пути от измененного узла к корню, остальные поддеревья
+ * берут ее из кэша. Восстановленный текст кэшируется только по запросу: копия текста
+ * на каждом уровне удвоила бы память дерева, поэтому по умолчанию его кэширует только документ.
  */
 public class TextComposite extends AbstractTextComponent {
-    
+    private final boolean cacheRestored;
+    private String restoreCache;
+    private TextStatistics statistics;
+
+    /**
+     * Восстановленный текст кэшируется только для документа (TEXT)
+     */
     public TextComposite(TextComponentType type) {
+        this(type, type == TextComponentType.TEXT);
+    }
+
+    /**
+     * @param cacheRestored кэшировать ли восстановленный текст до изменения поддерева
+     */
+    public TextComposite(TextComponentType type, boolean cacheRestored) {
         super(type);
+        this.cacheRestored = cacheRestored;
     }
 
     @Override
     public String restore() {
-        StringBuilder sb = new StringBuilder();
-        
+        String restored = restoreCache;
+        if (restored != null) {
+            return restored;
+        }
+
+        // Компонент последнего разобранного уровня хранит исходный текст
+        if (children.isEmpty()) {
+            restored = content != null ? content : "";
+        } else {
+            restored = restoreToString(this);
+        }
+
+        if (cacheRestored && isCacheable()) {
+            restoreCache = restored;
+        }
+        return restored;
+    }
+
+    @Override
+    public void restoreTo(Appendable out) throws IOException {
+        String cached = restoreCache;
+        if (cached != null) {
+            out.append(cached);
+            return;
+        }
+        if (children.isEmpty()) {
+            if (content != null) {
+                out.append(content);
+            }
+            return;
+        }
+
         for (int i = 0; i < children.size(); i++) {
-            TextComponent child = children.get(i);
-            sb.append(child.restore());
-            
-            // Добавляем разделители только если они не представлены явно
-            if (i < children.size() - 1) {
-                TextComponent nextChild = children.get(i + 1);
-                
-                // Если следующий элемент не является символом-разделителем, добавляем пробел
-                if (type == TextComponentType.SENTENCE && 
-                    (nextChild.getType() == TextComponentType.WORD || 
-                     nextChild.getType() == TextComponentType.LEXEME)) {
-                    sb.append(" ");
+            children.get(i).restoreTo(out);
+            if (needsSeparator(i)) {
+                out.append(' ');
+            }
+        }
+    }
+
+    @Override
+    public int getRestoredLength() {
+        String cached = restoreCache;
+        if (cached != null) {
+            return cached.length();
+        }
+        if (children.isEmpty()) {
+            return content != null ? content.length() : 0;
+        }
+
+        int length = 0;
+        for (int i = 0; i < children.size(); i++) {
+            length += children.get(i).getRestoredLength();
+            if (needsSeparator(i)) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public TextStatistics getStatistics() {
+        TextStatistics cached = statistics;
+        if (cached != null) {
+            return cached;
+        }
+
+        TextStatistics.Builder builder = new TextStatistics.Builder(type);
+        if (children.isEmpty()) {
+            builder.addContent(type, content);
+        } else {
+            for (int i = 0; i < children.size(); i++) {
+                TextComponent child = children.get(i);
+                if (child.getChildCount() == 0) {
+                    // Листья учитываются напрямую, без отдельного объекта статистики
+                    builder.addContent(child.getType(), child.getContent());
+                } else {
+                    builder.add(child.getStatistics());
+                }
+                if (needsSeparator(i)) {
+                    builder.addCharacters(1);
                 }
             }
         }
-        
-        return sb.toString();
+
+        TextStatistics result = builder.build();
+        if (isCacheable()) {
+            statistics = result;
+        }
+        return result;
+    }
+
+    @Override
+    protected void invalidateCaches() {
+        restoreCache = null;
+        statistics = null;
+        super.invalidateCaches();
+    }
+
+    /**
+     * Разделитель добавляется, только если он не представлен явно:
+     * в предложении перед словом или лексемой ставится пробел
+     */
+    private boolean needsSeparator(int index) {
+        if (type != TextComponentType.SENTENCE || index >= children.size() - 1) {
+            return false;
+        }
+        TextComponentType nextType = children.get(index + 1).getType();
+        return nextType == TextComponentType.WORD || nextType == TextComponentType.LEXEME;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package com.texthandler.composite;
+
+import com.texthandler.util.LetterClassifier;
+
+/**
+ * Сводные показатели поддерева: количество слов и предложений, самое длинное слово,
+ * длина восстановленного текста, количество гласных и согласных.
+ * Слова учитываются по листьям WORD; у компонентов последнего разобранного уровня
+ * буквы и символы считаются по их содержимому.
+ */
+public final class TextStatistics {
+    private final int wordCount;
+    private final int sentenceCount;
+    private final String longestWord;
+    private final int characterCount;
+    private final int vowelCount;
+    private final int consonantCount;
+
+    private TextStatistics(Builder builder) {
+        this.wordCount = builder.wordCount;
+        this.sentenceCount = builder.sentenceCount;
+        this.longestWord = builder.longestWord;
+        this.characterCount = builder.characterCount;
+        this.vowelCount = builder.vowelCount;
+        this.consonantCount = builder.consonantCount;
+    }
+
+    /**
+     * Статистика произвольного компонента, собранная по статистике дочерних элементов
+     */
+    public static TextStatistics of(TextComponent component) {
+        Builder builder = new Builder(component.getType());
+        int childCount = component.getChildCount();
+        if (childCount == 0) {
+            builder.addContent(component.getType(), component.getContent());
+        } else {
+            for (int i = 0; i < childCount; i++) {
+                builder.add(component.getChild(i).getStatistics());
+            }
+            builder.addCharacters(component.getRestoredLength() - builder.characterCount);
+        }
+        return builder.build();
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public int getSentenceCount() {
+        return sentenceCount;
+    }
+
+    /**
+     * @return первое из самых длинных слов или null, если слов нет
+     */
+    public String getLongestWord() {
+        return longestWord;
+    }
+
+    public int getMaxWordLength() {
+        return longestWord != null ? longestWord.length() : 0;
+    }
+
+    /**
+     * @return длина восстановленного текста
+     */
+    public int getCharacterCount() {
+        return characterCount;
+    }
+
+    public int getVowelCount() {
+        return vowelCount;
+    }
+
+    public int getConsonantCount() {
+        return consonantCount;
+    }
+
+    /**
+     * Накопитель статистики составного компонента
+     */
+    static class Builder {
+        private final boolean sentence;
+        private int wordCount;
+        private int sentenceCount;
+        private String longestWord;
+        private int characterCount;
+        private int vowelCount;
+        private int consonantCount;
+
+        Builder(TextComponentType type) {
+            this.sentence = type == TextComponentType.SENTENCE;
+        }
+
+        /**
+         * Учитывает компонент без дочерних элементов по его содержимому
+         */
+        void addContent(TextComponentType type, String content) {
+            if (type == TextComponentType.SENTENCE) {
+                sentenceCount++;
+            }
+            if (content == null) {
+                return;
+            }
+            if (type == TextComponentType.WORD) {
+                wordCount++;
+                addWord(content);
+            }
+            characterCount += content.length();
+            for (int i = 0; i < content.length(); i++) {
+                char c = content.charAt(i);
+                if (LetterClassifier.isVowel(c)) {
+                    vowelCount++;
+                } else if (LetterClassifier.isConsonant(c)) {
+                    consonantCount++;
+                }
+            }
+        }
+
+        void add(TextStatistics statistics) {
+            wordCount += statistics.wordCount;
+            sentenceCount += statistics.sentenceCount;
+            characterCount += statistics.characterCount;
+            vowelCount += statistics.vowelCount;
+            consonantCount += statistics.consonantCount;
+            if (statistics.longestWord != null) {
+                addWord(statistics.longestWord);
+            }
+        }
+
+        /**
+         * Учитывает символы, не принадлежащие дочерним элементам (разделители)
+         */
+        void addCharacters(int count) {
+            characterCount += count;
+        }
+
+        TextStatistics build() {
+            if (sentence) {
+                // Предложение считается само по себе, независимо от уровня разбора
+                sentenceCount = 1;
+            }
+            return new TextStatistics(this);
+        }
+
+        private void addWord(String word) {
+            if (longestWord == null || word.length() > longestWord.length()) {
+                longestWord = word;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.texthandler.composite;
+
+/**
+ * Построитель документа по событиям разбора.
+ * Парсер сообщает о начале и конце составных компонентов и о листьях в порядке обхода,
+ * а реализация решает, в каком представлении хранить результат.
+ * @param <T> тип построенного документа
+ */
+public interface TextTreeBuilder<T> {
+    /**
+     * Начать составной компонент внутри текущего
+     */
+    void startComposite(TextComponentType type);
+
+    /**
+     * Добавить лист для фрагмента [start, end) исходного текста в текущий компонент
+     */
+    void addLeaf(TextComponentType type, CharSequence source, int start, int end);
+
+    /**
+     * Завершить текущий составной компонент
+     */
+    void endComposite();
+
+    /**
+     * @return построенный документ (корень - первый начатый компонент)
+     */
+    T build();
+}
@@ -0,0 +1,136 @@
+package com.texthandler.dictionary;
+
+import com.texthandler.composite.ColumnarDocument;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Слова документа в виде потоков идентификаторов: для каждого предложения - массив int
+ * с идентификаторами его слов в словаре документа. Индекс строится за один обход,
+ * после чего подсчет частот, поиск повторов и n-граммы работают на примитивных массивах.
+ */
+public class DocumentWords {
+    private final WordDictionary dictionary;
+    private final int[][] sentences;
+    private final int wordCount;
+
+    private DocumentWords(WordDictionary dictionary, int[][] sentences) {
+        this.dictionary = dictionary;
+        this.sentences = sentences;
+        int count = 0;
+        for (int[] sentence : sentences) {
+            count += sentence.length;
+        }
+        this.wordCount = count;
+    }
+
+    /**
+     * Индекс слов компонента с новым словарем
+     */
+    public static DocumentWords of(TextComponent component) {
+        return of(component, new WordDictionary());
+    }
+
+    /**
+     * Индекс слов компонента; слова добавляются в переданный словарь.
+     * Компонент ниже уровня предложения считается одним предложением.
+     */
+    public static DocumentWords of(TextComponent component, WordDictionary dictionary) {
+        List<int[]> sentences = new ArrayList<>();
+        SentenceCollector collector = new SentenceCollector(dictionary);
+
+        if (component instanceof ColumnarDocument.Node node) {
+            // Колоночный документ: просмотр массива типов без обхода дерева
+            ColumnarDocument document = node.getDocument();
+            if (component.getType().compareTo(TextComponentType.SENTENCE) > 0) {
+                document.forEachOfType(node.getIndex(), TextComponentType.WORD,
+                        word -> collector.add(document.content(word)));
+                sentences.add(collector.finish());
+            } else {
+                document.forEachOfType(node.getIndex(), TextComponentType.SENTENCE, sentence -> {
+                    document.forEachOfType(sentence, TextComponentType.WORD,
+                            word -> collector.add(document.content(word)));
+                    sentences.add(collector.finish());
+                });
+            }
+        } else if (component.getType().compareTo(TextComponentType.SENTENCE) > 0) {
+            component.forEachDescendant(TextComponentType.WORD, word -> collector.add(word.getContent()));
+            sentences.add(collector.finish());
+        } else {
+            component.forEachDescendant(TextComponentType.SENTENCE, sentence -> {
+                sentence.forEachDescendant(TextComponentType.WORD, word -> collector.add(word.getContent()));
+                sentences.add(collector.finish());
+            });
+        }
+        return new DocumentWords(dictionary, sentences.toArray(new int[0][]));
+    }
+
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int getSentenceCount() {
+        return sentences.length;
+    }
+
+    /**
+     * @return идентификаторы слов предложения; массив не копируется и не должен изменяться
+     */
+    public int[] getSentenceWords(int sentence) {
+        return sentences[sentence];
+    }
+
+    /**
+     * @return общее количество слов
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * @return количество вхождений каждого слова по его идентификатору
+     */
+    public IntCounter countWords() {
+        IntCounter counter = new IntCounter(dictionary.size());
+        for (int[] sentence : sentences) {
+            for (int id : sentence) {
+                counter.increment(id);
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Накопитель идентификаторов слов текущего предложения
+     */
+    private static class SentenceCollector {
+        private final WordDictionary dictionary;
+        private int[] ids = new int[32];
+        private int size;
+
+        SentenceCollector(WordDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        void add(String word) {
+            int id = dictionary.add(word);
+            if (id == WordDictionary.NO_WORD) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] finish() {
+            int[] sentence = Arrays.copyOf(ids, size);
+            size = 0;
+            return sentence;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.texthandler.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Счетчики для плотных неотрицательных ключей (идентификаторов словаря) в массиве int
+ */
+public class IntCounter {
+    private int[] counts;
+
+    public IntCounter() {
+        this(64);
+    }
+
+    public IntCounter(int expectedKeys) {
+        this.counts = new int[Math.max(expectedKeys, 1)];
+    }
+
+    /**
+     * Увеличивает счетчик ключа на единицу
+     * @return новое значение счетчика
+     */
+    public int increment(int key) {
+        return add(key, 1);
+    }
+
+    /**
+     * @return новое значение счетчика
+     */
+    public int add(int key, int delta) {
+        if (key >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, key + 1));
+        }
+        return counts[key] += delta;
+    }
+
+    public int get(int key) {
+        return key < counts.length ? counts[key] : 0;
+    }
+
+    /**
+     * @return граница ключей: у всех ключей, не меньших ее, счетчик равен нулю
+     */
+    public int keyLimit() {
+        return counts.length;
+    }
+}
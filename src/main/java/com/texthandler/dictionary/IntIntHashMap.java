@@ -0,0 +1,122 @@
+package com.texthandler.dictionary;
+
+/**
+ * Отображение int → int с открытой адресацией для разреженных ключей
+ * (например, составных ключей пар слов), без упаковки ключей и значений.
+ * Отсутствующему ключу соответствует значение 0.
+ */
+public class IntIntHashMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max((int) (expectedSize / LOAD_FACTOR), 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int get(int key) {
+        int slot = find(key);
+        return used[slot] ? values[slot] : 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[find(key)];
+    }
+
+    public void put(int key, int value) {
+        int slot = find(key);
+        if (!used[slot]) {
+            insert(slot, key);
+            slot = find(key);
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Прибавляет delta к значению ключа
+     * @return новое значение
+     */
+    public int addTo(int key, int delta) {
+        int slot = find(key);
+        if (!used[slot]) {
+            insert(slot, key);
+            slot = find(key);
+        }
+        return values[slot] += delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Перебирает пары без создания объектов; порядок не определен
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Обработчик пары ключ - значение
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, int key) {
+        used[slot] = true;
+        keys[slot] = key;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,94 @@
+package com.texthandler.dictionary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Словарь слов документа: нормализованная форма слова (нижний регистр, без пробелов по краям)
+ * получает плотный идентификатор в порядке первого вхождения.
+ * Исходные формы запоминаются отдельно, поэтому повторное слово находится по строке листа
+ * без создания новой строки; нормализация выполняется один раз на каждую исходную форму.
+ * Словарь не потокобезопасен.
+ */
+public class WordDictionary {
+    public static final int NO_WORD = -1;
+
+    private final Map<String, Integer> rawIds = new HashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] words = new String[64];
+    private int size;
+
+    /**
+     * @return идентификатор слова (новый, если форма встретилась впервые)
+     * или {@link #NO_WORD} для пустого слова
+     */
+    public int add(String word) {
+        if (word == null) {
+            return NO_WORD;
+        }
+        Integer id = rawIds.get(word);
+        if (id != null) {
+            return id;
+        }
+        String normalized = normalize(word);
+        if (normalized.isEmpty()) {
+            return NO_WORD;
+        }
+        id = addNormalized(normalized);
+        rawIds.put(word, id);
+        return id;
+    }
+
+    /**
+     * Добавляет уже нормализованную непустую форму (например, при слиянии словарей)
+     * @return идентификатор слова
+     */
+    int addNormalized(String normalized) {
+        Integer id = ids.get(normalized);
+        if (id == null) {
+            id = size;
+            if (size == words.length) {
+                words = Arrays.copyOf(words, size * 2);
+            }
+            words[size++] = normalized;
+            ids.put(normalized, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return идентификатор слова или {@link #NO_WORD}, если слова нет в словаре
+     */
+    public int idOf(String word) {
+        if (word == null) {
+            return NO_WORD;
+        }
+        Integer id = rawIds.get(word);
+        if (id == null) {
+            id = ids.get(normalize(word));
+        }
+        return id != null ? id : NO_WORD;
+    }
+
+    /**
+     * @return нормализованная форма слова с заданным идентификатором
+     */
+    public String word(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown word id: " + id);
+        }
+        return words[id];
+    }
+
+    /**
+     * @return количество различных слов
+     */
+    public int size() {
+        return size;
+    }
+
+    public static String normalize(String word) {
+        return word.toLowerCase().trim();
+    }
+}
@@ -0,0 +1,128 @@
+package com.texthandler.dictionary;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Частоты слов: собственный словарь и счетчики по его идентификаторам.
+ * Таблицы разных частей документа сливаются ({@link #merge(WordFrequencies)}): слова второй
+ * таблицы добавляются после слов первой, поэтому при слиянии в порядке текста идентификаторы
+ * совпадают с порядком первых вхождений, как при последовательном подсчете.
+ * Слова учитываются только внутри предложений, как в {@link DocumentWords}.
+ */
+public class WordFrequencies {
+    /**
+     * Количество абзацев, ниже которого диапазон считается в текущем потоке
+     */
+    public static final int DEFAULT_PARAGRAPHS_PER_TASK = 16;
+
+    private final WordDictionary dictionary;
+    private final IntCounter counts;
+
+    public WordFrequencies() {
+        this(new WordDictionary(), new IntCounter());
+    }
+
+    private WordFrequencies(WordDictionary dictionary, IntCounter counts) {
+        this.dictionary = dictionary;
+        this.counts = counts;
+    }
+
+    /**
+     * Частоты по готовому индексу слов документа
+     */
+    public static WordFrequencies of(DocumentWords words) {
+        return new WordFrequencies(words.getDictionary(), words.countWords());
+    }
+
+    /**
+     * Параллельный подсчет: абзацы документа делятся на диапазоны, каждый диапазон
+     * считается в своей таблице в пуле, таблицы сливаются в порядке абзацев.
+     * Компонент не уровня TEXT считается последовательно.
+     * @param paragraphsPerTask количество абзацев, ниже которого диапазон не делится
+     */
+    public static WordFrequencies count(TextComponent document, ForkJoinPool pool, int paragraphsPerTask) {
+        if (paragraphsPerTask < 1) {
+            throw new IllegalArgumentException("Paragraphs per task must be positive: " + paragraphsPerTask);
+        }
+        if (document.getType() != TextComponentType.TEXT) {
+            return of(DocumentWords.of(document));
+        }
+        return pool.invoke(new CountTask(document, 0, document.getChildCount(), paragraphsPerTask));
+    }
+
+    /**
+     * Добавляет слова предложений компонента
+     */
+    public void addWords(TextComponent component) {
+        component.forEachDescendant(TextComponentType.SENTENCE,
+                sentence -> sentence.forEachDescendant(TextComponentType.WORD, word -> addWord(word.getContent())));
+    }
+
+    public void addWord(String word) {
+        int id = dictionary.add(word);
+        if (id != WordDictionary.NO_WORD) {
+            counts.increment(id);
+        }
+    }
+
+    /**
+     * Прибавляет частоты другой таблицы; ее новые слова получают идентификаторы после имеющихся
+     * @return эта таблица
+     */
+    public WordFrequencies merge(WordFrequencies other) {
+        for (int id = 0; id < other.dictionary.size(); id++) {
+            counts.add(dictionary.addNormalized(other.dictionary.word(id)), other.counts.get(id));
+        }
+        return this;
+    }
+
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return количество вхождений слова по его идентификатору
+     */
+    public int getCount(int id) {
+        return counts.get(id);
+    }
+
+    /**
+     * Подсчет диапазона абзацев [from, to); задачи не сериализуются
+     */
+    @SuppressWarnings("serial")
+    private static class CountTask extends RecursiveTask<WordFrequencies> {
+        private final TextComponent document;
+        private final int from;
+        private final int to;
+        private final int paragraphsPerTask;
+
+        CountTask(TextComponent document, int from, int to, int paragraphsPerTask) {
+            this.document = document;
+            this.from = from;
+            this.to = to;
+            this.paragraphsPerTask = paragraphsPerTask;
+        }
+
+        @Override
+        protected WordFrequencies compute() {
+            if (to - from <= paragraphsPerTask) {
+                WordFrequencies frequencies = new WordFrequencies();
+                for (int i = from; i < to; i++) {
+                    frequencies.addWords(document.getChild(i));
+                }
+                return frequencies;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(document, from, middle, paragraphsPerTask);
+            CountTask right = new CountTask(document, middle, to, paragraphsPerTask);
+            left.fork();
+            WordFrequencies rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.texthandler.interpreter;
 
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,11 +16,29 @@ import java.util.regex.Pattern;
 public class ArithmeticExpressionProcessor {
     private static final Logger logger = LogManager.getLogger(ArithmeticExpressionProcessor.class);
     
-    // Паттерн для поиска выражений в круглых скобках (приоритет)
-    private static final Pattern PARENTHESES_PATTERN = Pattern.compile("\\(([^()]*[+\\-*/][^()]*)\\)");
-    
     // Паттерн для поиска арифметических выражений без скобок
     private static final Pattern ARITHMETIC_PATTERN = Pattern.compile("\\b\\d+(?:\\.\\d+)?(?:\\s*[+\\-*/]\\s*\\d+(?:\\.\\d+)?)+\\b");
+
+    // Каждое выражение только увеличивает счетчик; подробности доступны на уровне DEBUG
+    private static final Counter EVALUATED = MetricsRegistry.global().counter("interpreter.expressions.evaluated");
+    private static final Counter FAILED = MetricsRegistry.global().counter("interpreter.expressions.failed");
+
+    private final ExpressionCache expressionCache;
+
+    /**
+     * Обработчик с общим кэшем выражений процесса
+     */
+    public ArithmeticExpressionProcessor() {
+        this(ExpressionCache.shared());
+    }
+
+    public ArithmeticExpressionProcessor(ExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
+
+    public ExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
     
     /**
      * Обрабатывает все арифметические выражения в тексте
@@ -25,7 +46,7 @@ public class ArithmeticExpressionProcessor {
      * @return текст с вычисленными выражениями
      */
     public String processExpressions(String text) {
-        if (text == null || text.isEmpty()) {
+        if (text == null || text.isEmpty() || !mayContainExpression(text)) {
             return text;
         }
         
@@ -39,227 +60,160 @@ public class ArithmeticExpressionProcessor {
         
         return result;
     }
-    
+
     /**
-     * Обрабатывает выражения в скобках
+     * Быстрая проверка: без цифры и знака операции в тексте нет выражений
      */
-    private String processParenthesesExpressions(String text) {
-        String result = text;
-        Matcher matcher = PARENTHESES_PATTERN.matcher(result);
-        
-        while (matcher.find()) {
-            String fullMatch = matcher.group(0);  // Полное совпадение с скобками
-            String expression = matcher.group(1); // Выражение без скобок
-            
-            try {
-                double value = evaluateExpression(expression);
-                result = result.replace(fullMatch, String.valueOf(value));
-                logger.info("Processed parentheses expression: {} = {}", expression, value);
-                
-                // Обновляем matcher для продолжения поиска
-                matcher = PARENTHESES_PATTERN.matcher(result);
-            } catch (Exception e) {
-                logger.warn("Failed to evaluate parentheses expression: {}, error: {}", expression, e.getMessage());
+    private static boolean mayContainExpression(String text) {
+        boolean digit = false;
+        boolean operator = false;
+        for (int i = 0; i < text.length() && !(digit && operator); i++) {
+            char ch = text.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digit = true;
+            } else if (isOperator(ch)) {
+                operator = true;
             }
         }
-        
-        return result;
+        return digit && operator;
     }
     
     /**
-     * Обрабатывает простые арифметические выражения без скобок
+     * Обрабатывает выражения в скобках за один проход: открытые скобки хранятся в стеке,
+     * при закрытии вычисляется самая внутренняя группа со знаком операции, и ее значение
+     * сразу заменяет группу в результате. Внешняя группа вычисляется, только если все
+     * вложенные в нее группы были заменены значениями.
      */
-    private String processArithmeticExpressions(String text) {
-        String result = text;
-        Matcher matcher = ARITHMETIC_PATTERN.matcher(result);
-        
-        while (matcher.find()) {
-            String expression = matcher.group(0);
-            
-            try {
-                double value = evaluateExpression(expression);
-                result = result.replace(expression, String.valueOf(value));
-                logger.info("Processed arithmetic expression: {} = {}", expression, value);
-                
-                // Обновляем matcher для продолжения поиска
-                matcher = ARITHMETIC_PATTERN.matcher(result);
-            } catch (Exception e) {
-                logger.warn("Failed to evaluate arithmetic expression: {}, error: {}", expression, e.getMessage());
-            }
+    private String processParenthesesExpressions(String text) {
+        if (text.indexOf('(') < 0) {
+            return text;
         }
-        
-        return result;
-    }
-    
-    private double evaluateExpression(String expression) {
-        // Сначала обрабатываем все вложенные скобки
-        String processed = processNestedParentheses(expression);
-        
-        // Затем вычисляем результат
-        return parseExpression(processed.trim());
-    }
-
-    private String processNestedParentheses(String expression) {
-        while (expression.contains("(")) {
-            // Находим самые внутренние скобки
-            int start = -1;
-            int end = -1;
-            
-            for (int i = 0; i < expression.length(); i++) {
-                if (expression.charAt(i) == '(') {
-                    start = i;
-                } else if (expression.charAt(i) == ')') {
-                    end = i;
-                    break;
+        StringBuilder result = new StringBuilder(text.length());
+        int[] starts = new int[8];
+        boolean[] hasOperator = new boolean[8];
+        boolean[] hasParentheses = new boolean[8];
+        int depth = 0;
+        
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '(') {
+                if (depth == starts.length) {
+                    starts = Arrays.copyOf(starts, depth * 2);
+                    hasOperator = Arrays.copyOf(hasOperator, depth * 2);
+                    hasParentheses = Arrays.copyOf(hasParentheses, depth * 2);
                 }
-            }
-            
-            if (start == -1 || end == -1) break;
-            
-            // Вычисляем выражение внутри скобок
-            String innerExpr = expression.substring(start + 1, end);
-            double result = parseExpression(innerExpr);
-            
-            // Заменяем скобки на результат
-            expression = expression.substring(0, start) + result + expression.substring(end + 1);
-        }
-        
-        return expression;
-    }
-    
-    /**
-     * Парсит и вычисляет выражение с учетом приоритета операций
-     */
-    private double parseExpression(String expression) {
-        // Убираем лишние пробелы
-        expression = expression.replaceAll("\\s+", "");
-        return parseAddSubtract(expression, new ParsePosition(0));
-    }
-    
-    /**
-     * Парсит операции сложения и вычитания (наименьший приоритет)
-     */
-    private double parseAddSubtract(String expression, ParsePosition pos) {
-        double result = parseMultiplyDivide(expression, pos);
-        
-        while (pos.index < expression.length()) {
-            char operator = expression.charAt(pos.index);
-            if (operator == '+' || operator == '-') {
-                pos.index++; // пропускаем оператор
-                double right = parseMultiplyDivide(expression, pos);
-                if (operator == '+') {
-                    result += right;
-                } else {
-                    result -= right;
+                starts[depth] = result.length();
+                hasOperator[depth] = false;
+                hasParentheses[depth] = false;
+                depth++;
+                result.append(ch);
+            } else if (ch == ')' && depth > 0) {
+                depth--;
+                boolean evaluated = hasOperator[depth] && !hasParentheses[depth]
+                        && evaluateGroup(result, starts[depth]);
+                if (!evaluated) {
+                    result.append(ch);
+                }
+                if (depth > 0) {
+                    // Значение группы становится частью внешней группы, оставленная группа блокирует ее
+                    if (!evaluated) {
+                        hasParentheses[depth - 1] = true;
+                    } else if (containsOperator(result, starts[depth])) {
+                        hasOperator[depth - 1] = true;
+                    }
                 }
             } else {
-                break;
+                result.append(ch);
+                if (depth > 0 && isOperator(ch)) {
+                    hasOperator[depth - 1] = true;
+                }
             }
         }
         
-        return result;
+        return result.toString();
     }
-    
+
     /**
-     * Парсит операции умножения и деления (средний приоритет)
+     * Вычисляет группу, начинающуюся со скобки в позиции start, и заменяет ее значением;
+     * выражение читается прямо из буфера результата
+     * @return false, если выражение не вычисляется (группа остается без изменений)
      */
-    private double parseMultiplyDivide(String expression, ParsePosition pos) {
-        double result = parseFactor(expression, pos);
-        
-        while (pos.index < expression.length()) {
-            char operator = expression.charAt(pos.index);
-            if (operator == '*' || operator == '/') {
-                pos.index++; // пропускаем оператор
-                double right = parseFactor(expression, pos);
-                if (operator == '*') {
-                    result *= right;
-                } else {
-                    if (right == 0) {
-                        throw new ArithmeticException("Division by zero");
-                    }
-                    result /= right;
-                }
-            } else {
-                break;
+    private boolean evaluateGroup(StringBuilder result, int start) {
+        try {
+            double value = evaluateExpression(result, start + 1, result.length());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Processed parentheses expression: {} = {}", result.substring(start + 1), value);
+            }
+            result.setLength(start);
+            result.append(value);
+            EVALUATED.increment();
+            return true;
+        } catch (Exception e) {
+            FAILED.increment();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to evaluate parentheses expression: {}, error: {}",
+                        result.substring(start + 1), e.getMessage());
             }
+            return false;
         }
-        
-        return result;
     }
     
     /**
-     * Парсит числа, унарные операторы и выражения в скобках (наивысший приоритет)
+     * Обрабатывает простые арифметические выражения без скобок за один проход:
+     * каждое найденное выражение заменяется своим значением только в месте вхождения
      */
-    private double parseFactor(String expression, ParsePosition pos) {
-        if (pos.index >= expression.length()) {
-            throw new IllegalArgumentException("Unexpected end of expression");
-        }
-        
-        char ch = expression.charAt(pos.index);
-        
-        // Унарный минус
-        if (ch == '-') {
-            pos.index++;
-            return -parseFactor(expression, pos);
-        }
-        
-        // Унарный плюс
-        if (ch == '+') {
-            pos.index++;
-            return parseFactor(expression, pos);
+    private String processArithmeticExpressions(String text) {
+        Matcher matcher = ARITHMETIC_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return text;
         }
+        StringBuilder result = new StringBuilder(text.length());
+        int last = 0;
         
-        // Выражение в скобках
-        if (ch == '(') {
-            pos.index++; // пропускаем '('
-            double result = parseAddSubtract(expression, pos);
-            if (pos.index >= expression.length() || expression.charAt(pos.index) != ')') {
-                throw new IllegalArgumentException("Missing closing parenthesis");
+        do {
+            int start = matcher.start();
+            int end = matcher.end();
+            result.append(text, last, start);
+            
+            try {
+                double value = evaluateExpression(text, start, end);
+                result.append(value);
+                EVALUATED.increment();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Processed arithmetic expression: {} = {}", matcher.group(), value);
+                }
+            } catch (Exception e) {
+                result.append(text, start, end);
+                FAILED.increment();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Failed to evaluate arithmetic expression: {}, error: {}", matcher.group(), e.getMessage());
+                }
             }
-            pos.index++; // пропускаем ')'
-            return result;
-        }
+            last = end;
+        } while (matcher.find());
         
-        // Число
-        return parseNumber(expression, pos);
+        result.append(text, last, text.length());
+        return result.toString();
     }
-    
-    /**
-     * Парсит число (целое или с плавающей точкой)
-     */
-    private double parseNumber(String expression, ParsePosition pos) {
-        int start = pos.index;
-        
-        // Читаем цифры и точку
-        while (pos.index < expression.length()) {
-            char ch = expression.charAt(pos.index);
-            if (Character.isDigit(ch) || ch == '.') {
-                pos.index++;
-            } else {
-                break;
+
+    private static boolean isOperator(char ch) {
+        return ch == '+' || ch == '-' || ch == '*' || ch == '/';
+    }
+
+    private static boolean containsOperator(CharSequence text, int start) {
+        for (int i = start; i < text.length(); i++) {
+            if (isOperator(text.charAt(i))) {
+                return true;
             }
         }
-        
-        if (start == pos.index) {
-            throw new IllegalArgumentException("Expected number at position " + pos.index);
-        }
-        
-        String numberStr = expression.substring(start, pos.index);
-        try {
-            return Double.parseDouble(numberStr);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid number: " + numberStr);
-        }
+        return false;
     }
     
     /**
-     * Вспомогательный класс для отслеживания позиции при парсинге
+     * Вычисляет выражение из фрагмента [start, end) по дереву из кэша; повторное выражение
+     * не разбирается заново, а фрагмент не копируется
      */
-    private static class ParsePosition {
-        int index;
-        
-        ParsePosition(int index) {
-            this.index = index;
-        }
+    private double evaluateExpression(CharSequence text, int start, int end) {
+        return expressionCache.get(text, start, end).evaluate();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.texthandler.interpreter;
+
+/**
+ * Бинарная операция: сложение, вычитание, умножение или деление
+ */
+final class BinaryExpression implements Expression {
+    private final char operator;
+    private final Expression left;
+    private final Expression right;
+
+    BinaryExpression(char operator, Expression left, Expression right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public double evaluate() {
+        double leftValue = left.evaluate();
+        double rightValue = right.evaluate();
+        switch (operator) {
+            case '+':
+                return leftValue + rightValue;
+            case '-':
+                return leftValue - rightValue;
+            case '*':
+                return leftValue * rightValue;
+            case '/':
+                if (rightValue == 0) {
+                    throw new ArithmeticException("Division by zero");
+                }
+                return leftValue / rightValue;
+            default:
+                throw new IllegalStateException("Unknown operator: " + operator);
+        }
+    }
+}
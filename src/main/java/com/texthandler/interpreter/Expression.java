@@ -0,0 +1,14 @@
+package com.texthandler.interpreter;
+
+/**
+ * Скомпилированное арифметическое выражение (узел дерева интерпретатора).
+ * Выражения неизменяемы, поэтому одно дерево можно вычислять повторно и из разных потоков.
+ */
+@FunctionalInterface
+public interface Expression {
+    /**
+     * @return значение выражения
+     * @throws ArithmeticException при делении на ноль
+     */
+    double evaluate();
+}
@@ -0,0 +1,184 @@
+package com.texthandler.interpreter;
+
+import com.texthandler.metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный потокобезопасный LRU-кэш скомпилированных выражений.
+ * Ключ - текст выражения без пробелов, поэтому "2 + 3" и "2+3" компилируются один раз.
+ * Выражение ищется прямо по фрагменту исходного текста: при попадании в кэш ничего не копируется,
+ * строка ключа создается только при промахе.
+ * Компиляция выполняется вне блокировки; при одновременном промахе по одному ключу
+ * выражение может быть скомпилировано дважды, в кэше останется одно дерево.
+ * Неверные выражения не кэшируются.
+ */
+public class ExpressionCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final int capacity;
+    private final Map<Key, Expression> expressions;
+    // Ключ поиска по фрагменту; используется только под блокировкой expressions
+    private final Key probe = new Key();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ExpressionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity максимальное количество выражений в кэше
+     */
+    public ExpressionCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Expression cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.expressions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Expression> eldest) {
+                return size() > ExpressionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Общий кэш для всех обработчиков выражений процесса
+     */
+    public static ExpressionCache shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * @return скомпилированное выражение из кэша или только что скомпилированное
+     * @throws IllegalArgumentException если выражение записано неверно
+     */
+    public Expression get(String expression) {
+        return get(expression, 0, expression.length());
+    }
+
+    /**
+     * Выражение из фрагмента [start, end) текста; фрагмент копируется только при промахе
+     * @throws IllegalArgumentException если выражение записано неверно
+     */
+    public Expression get(CharSequence text, int start, int end) {
+        int hash = Key.hash(text, start, end);
+        Expression compiled;
+        synchronized (expressions) {
+            compiled = expressions.get(probe.set(text, start, end, hash));
+            probe.set(null, 0, 0, 0);
+        }
+        if (compiled != null) {
+            hits.increment();
+            return compiled;
+        }
+
+        misses.increment();
+        compiled = ExpressionCompiler.compile(text, start, end);
+        String normalized = ExpressionCompiler.normalize(text.subSequence(start, end).toString());
+        Key key = new Key().set(normalized, 0, normalized.length(), hash);
+        synchronized (expressions) {
+            Expression existing = expressions.putIfAbsent(key, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (expressions) {
+            return expressions.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        synchronized (expressions) {
+            expressions.clear();
+        }
+    }
+
+    /**
+     * Фрагмент текста как ключ: пробелы не учитываются ни в хэше, ни при сравнении,
+     * поэтому фрагмент исходного текста равен ключу, сохраненному без пробелов
+     */
+    private static final class Key {
+        private CharSequence text;
+        private int start;
+        private int end;
+        private int hash;
+
+        Key set(CharSequence text, int start, int end, int hash) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.hash = hash;
+            return this;
+        }
+
+        static int hash(CharSequence text, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                char ch = text.charAt(i);
+                if (!ExpressionCompiler.isSpace(ch)) {
+                    hash = 31 * hash + ch;
+                }
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other) || hash != other.hash) {
+                return false;
+            }
+            int i = start;
+            int j = other.start;
+            while (true) {
+                while (i < end && ExpressionCompiler.isSpace(text.charAt(i))) {
+                    i++;
+                }
+                while (j < other.end && ExpressionCompiler.isSpace(other.text.charAt(j))) {
+                    j++;
+                }
+                if (i == end || j == other.end) {
+                    return i == end && j == other.end;
+                }
+                if (text.charAt(i++) != other.text.charAt(j++)) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class SharedHolder {
+        static final ExpressionCache INSTANCE = new ExpressionCache();
+
+        static {
+            MetricsRegistry metrics = MetricsRegistry.global();
+            metrics.gauge("interpreter.cache.hits", INSTANCE::getHits);
+            metrics.gauge("interpreter.cache.misses", INSTANCE::getMisses);
+            metrics.gauge("interpreter.cache.size", INSTANCE::size);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.texthandler.interpreter;
+
+/**
+ * Компилятор арифметических выражений в дерево {@link Expression} методом рекурсивного спуска.
+ * Поддерживаются +, -, *, /, унарные плюс и минус, скобки и десятичные числа;
+ * разбор заканчивается на первом символе, который не может продолжить выражение.
+ */
+public final class ExpressionCompiler {
+
+    private ExpressionCompiler() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Компилирует выражение; пробелы внутри выражения игнорируются
+     * @throws IllegalArgumentException если выражение записано неверно
+     */
+    public static Expression compile(String expression) {
+        return compile(expression, 0, expression.length());
+    }
+
+    /**
+     * Компилирует выражение из фрагмента [start, end) без копирования фрагмента
+     * @throws IllegalArgumentException если выражение записано неверно
+     */
+    public static Expression compile(CharSequence text, int start, int end) {
+        return new Parser(text, start, end).parseAddSubtract();
+    }
+
+    /**
+     * Удаляет пробельные символы (как \s в регулярных выражениях); строка без них возвращается как есть
+     */
+    public static String normalize(String expression) {
+        int length = expression.length();
+        int first = 0;
+        while (first < length && !isSpace(expression.charAt(first))) {
+            first++;
+        }
+        if (first == length) {
+            return expression;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(expression, 0, first);
+        for (int i = first + 1; i < length; i++) {
+            char ch = expression.charAt(i);
+            if (!isSpace(ch)) {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    static boolean isSpace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
+    /**
+     * Состояние разбора одного выражения: курсор по фрагменту исходного текста.
+     * Пробельные символы пропускаются в любом месте, в том числе внутри чисел.
+     */
+    private static class Parser {
+        // Степени десяти, точно представимые в double
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+                1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        private static final long MAX_EXACT_MANTISSA = 1L << 53;
+        private static final int MAX_LONG_DIGITS = 18;
+
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+        private int index;
+
+        Parser(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.index = start;
+        }
+
+        /**
+         * Сложение и вычитание (наименьший приоритет)
+         */
+        Expression parseAddSubtract() {
+            Expression result = parseMultiplyDivide();
+            while (true) {
+                int operator = peek();
+                if (operator != '+' && operator != '-') {
+                    break;
+                }
+                index++;
+                result = new BinaryExpression((char) operator, result, parseMultiplyDivide());
+            }
+            return result;
+        }
+
+        /**
+         * Умножение и деление (средний приоритет)
+         */
+        private Expression parseMultiplyDivide() {
+            Expression result = parseFactor();
+            while (true) {
+                int operator = peek();
+                if (operator != '*' && operator != '/') {
+                    break;
+                }
+                index++;
+                result = new BinaryExpression((char) operator, result, parseFactor());
+            }
+            return result;
+        }
+
+        /**
+         * Числа, унарные операторы и выражения в скобках (наивысший приоритет)
+         */
+        private Expression parseFactor() {
+            int ch = peek();
+            if (ch < 0) {
+                throw new IllegalArgumentException("Unexpected end of expression");
+            }
+            if (ch == '-') {
+                index++;
+                return new NegateExpression(parseFactor());
+            }
+            if (ch == '+') {
+                index++;
+                return parseFactor();
+            }
+            if (ch == '(') {
+                index++;
+                Expression result = parseAddSubtract();
+                if (peek() != ')') {
+                    throw new IllegalArgumentException("Missing closing parenthesis");
+                }
+                index++;
+                return result;
+            }
+            return new NumberExpression(parseNumber());
+        }
+
+        /**
+         * Разбирает число на месте. Если мантисса и количество знаков после точки позволяют,
+         * значение вычисляется одним делением точных double - результат совпадает с Double.parseDouble;
+         * иначе число передается Double.parseDouble.
+         */
+        private double parseNumber() {
+            int numberStart = index;
+            long mantissa = 0;
+            int significantDigits = 0;
+            int fractionDigits = 0;
+            int dots = 0;
+            boolean digits = false;
+
+            while (true) {
+                int ch = peek();
+                if (ch >= '0' && ch <= '9') {
+                    digits = true;
+                    if (dots > 0) {
+                        fractionDigits++;
+                    }
+                    if (mantissa != 0 || ch != '0') {
+                        significantDigits++;
+                    }
+                    if (significantDigits <= MAX_LONG_DIGITS) {
+                        mantissa = mantissa * 10 + (ch - '0');
+                    }
+                } else if (ch == '.') {
+                    dots++;
+                } else {
+                    break;
+                }
+                index++;
+            }
+
+            if (index == numberStart) {
+                throw new IllegalArgumentException("Expected number at position " + (index - start));
+            }
+            if (!digits || dots > 1) {
+                throw new IllegalArgumentException("Invalid number: " + numberText(numberStart));
+            }
+            if (significantDigits <= MAX_LONG_DIGITS && mantissa <= MAX_EXACT_MANTISSA
+                    && fractionDigits < POWERS_OF_TEN.length) {
+                return fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+            }
+            return Double.parseDouble(numberText(numberStart));
+        }
+
+        /**
+         * @return текущий символ после пропуска пробелов или -1 в конце фрагмента
+         */
+        private int peek() {
+            while (index < end && isSpace(text.charAt(index))) {
+                index++;
+            }
+            return index < end ? text.charAt(index) : -1;
+        }
+
+        /**
+         * Текст числа без пробелов; нужен только для медленного пути и сообщений об ошибках
+         */
+        private String numberText(int numberStart) {
+            return normalize(text.subSequence(numberStart, index).toString());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.texthandler.interpreter;
+
+/**
+ * Унарный минус
+ */
+final class NegateExpression implements Expression {
+    private final Expression operand;
+
+    NegateExpression(Expression operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public double evaluate() {
+        return -operand.evaluate();
+    }
+}
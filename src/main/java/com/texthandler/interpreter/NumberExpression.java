@@ -0,0 +1,17 @@
+package com.texthandler.interpreter;
+
+/**
+ * Числовая константа
+ */
+final class NumberExpression implements Expression {
+    private final double value;
+
+    NumberExpression(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double evaluate() {
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.texthandler.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчик событий. Увеличение не блокирует потоки и не создает объектов,
+ * поэтому счетчик можно обновлять на каждый обработанный элемент.
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,87 @@
+package com.texthandler.metrics;
+
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Реестр именованных метрик: счетчиков, измерителей текущих значений и гистограмм.
+ * Горячие участки кода получают метрику один раз (обычно в статическое поле)
+ * и затем только обновляют ее; текст формируется лишь при запросе сводки.
+ */
+public class MetricsRegistry {
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Общий реестр процесса
+     */
+    public static MetricsRegistry global() {
+        return GlobalHolder.INSTANCE;
+    }
+
+    /**
+     * @return счетчик с заданным именем; создается при первом обращении
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Регистрирует измеритель, значение которого читается при формировании сводки.
+     * Повторная регистрация с тем же именем заменяет измеритель.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return гистограмма с заданным именем; создается при первом обращении
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Обнуляет счетчики и гистограммы; сами метрики остаются зарегистрированными
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Сводка всех метрик в порядке имен, по одной строке на метрику.
+     * Метрики без событий пропускаются.
+     */
+    public String summary() {
+        TreeSet<String> names = new TreeSet<>(counters.keySet());
+        names.addAll(gauges.keySet());
+        names.addAll(histograms.keySet());
+
+        StringBuilder summary = new StringBuilder();
+        for (String name : names) {
+            Counter counter = counters.get(name);
+            if (counter != null && counter.get() != 0) {
+                summary.append(name).append(" = ").append(counter.get()).append('\n');
+            }
+            LongSupplier gauge = gauges.get(name);
+            if (gauge != null) {
+                summary.append(name).append(" = ").append(gauge.getAsLong()).append('\n');
+            }
+            Histogram histogram = histograms.get(name);
+            if (histogram != null && histogram.getCount() != 0) {
+                summary.append(String.format("%s: count=%d mean=%.0f p50<=%d p99<=%d max=%d%n",
+                        name, histogram.getCount(), histogram.getMean(),
+                        histogram.getPercentile(0.5), histogram.getPercentile(0.99), histogram.getMax()));
+            }
+        }
+        return summary.toString();
+    }
+
+    private static class GlobalHolder {
+        static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    }
+}
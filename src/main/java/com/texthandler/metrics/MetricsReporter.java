@@ -0,0 +1,65 @@
+package com.texthandler.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Периодический вывод сводки метрик в фоновом потоке-демоне.
+ * Пустая сводка не выводится.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final MetricsRegistry registry;
+    private final Consumer<String> sink;
+    private final ScheduledExecutorService scheduler;
+
+    private MetricsReporter(MetricsRegistry registry, Consumer<String> sink) {
+        this.registry = registry;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает вывод сводки с заданным периодом
+     * @param sink получатель сводки, например логгер
+     */
+    public static MetricsReporter start(MetricsRegistry registry, Duration period, Consumer<String> sink) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Reporting period must be positive: " + period);
+        }
+        // Период в наносекундах: toMillis() обнулил бы период короче миллисекунды
+        long nanos;
+        try {
+            nanos = period.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = Long.MAX_VALUE;
+        }
+        MetricsReporter reporter = new MetricsReporter(registry, sink);
+        reporter.scheduler.scheduleAtFixedRate(reporter::report, nanos, nanos, TimeUnit.NANOSECONDS);
+        return reporter;
+    }
+
+    /**
+     * Выводит сводку немедленно
+     */
+    public void report() {
+        String summary = registry.summary();
+        if (!summary.isEmpty()) {
+            sink.accept(summary);
+        }
+    }
+
+    /**
+     * Останавливает периодический вывод
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -1,25 +1,71 @@
 package com.texthandler.operation;
 
 import com.texthandler.composite.TextComponent;
-import com.texthandler.composite.TextComponentType;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.texthandler.dictionary.DocumentWords;
+import com.texthandler.dictionary.WordDictionary;
+import com.texthandler.dictionary.WordFrequencies;
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
  * Операция подсчета одинаковых слов без учета регистра
  */
 public class CountIdenticalWordsOperation implements TextOperation {
-    private static final Logger logger = LogManager.getLogger(CountIdenticalWordsOperation.class);
+    private static final Counter UNIQUE = MetricsRegistry.global().counter("operation.identical-words.unique");
+    private static final Counter DUPLICATES = MetricsRegistry.global().counter("operation.identical-words.duplicates");
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Последовательный подсчет
+     */
+    public CountIdenticalWordsOperation() {
+        this(null);
+    }
+
+    /**
+     * Параллельный подсчет: абзацы документа считаются в пуле в отдельных таблицах,
+     * которые затем сливаются в порядке абзацев; результат совпадает с последовательным
+     * @param pool пул для подсчета (null - последовательный режим)
+     */
+    public CountIdenticalWordsOperation(ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     @Override
     public String execute(TextComponent textComponent) {
-        Map<String, Integer> wordCounts = new HashMap<>();
-        collectWords(textComponent, wordCounts);
+        WordFrequencies frequencies = pool != null
+                ? WordFrequencies.count(textComponent, pool, WordFrequencies.DEFAULT_PARAGRAPHS_PER_TASK)
+                : WordFrequencies.of(DocumentWords.of(textComponent));
+        return formatResult(countWords(frequencies));
+    }
+
+    @Override
+    public OperationAccumulator accumulator(TextComponent document) {
+        if (pool != null) {
+            // Параллельный подсчет выполняется отдельно от общего обхода
+            return null;
+        }
+        WordFrequencies frequencies = new WordFrequencies();
+        return new OperationAccumulator() {
+            @Override
+            public void sentence(Sentence sentence) {
+                frequencies.addWords(sentence.getComponent());
+            }
+
+            @Override
+            public String result() {
+                return formatResult(countWords(frequencies));
+            }
+        };
+    }
 
+    private String formatResult(Map<String, Integer> wordCounts) {
         if (wordCounts.isEmpty()) {
             return "В тексте не найдено слов";
         }
@@ -44,31 +90,31 @@ public class CountIdenticalWordsOperation implements TextOperation {
             // Сортируем по количеству вхождений (по убыванию)
             duplicateWords.entrySet().stream()
                     .sorted((e1, e2) -> Integer.compare(e2.getValue(), e1.getValue()))
-                    .forEach(entry -> {
-                        result.append(String.format("- \"%s\": %d раз(а)\n", 
-                                    entry.getKey(), entry.getValue()));
-                        logger.info("Word '{}' appears {} times", entry.getKey(), entry.getValue());
-                    });
+                    .forEach(entry -> result.append(String.format("- \"%s\": %d раз(а)\n",
+                                    entry.getKey(), entry.getValue())));
         }
 
+        UNIQUE.add(wordCounts.size());
+        DUPLICATES.add(duplicateWords.size());
         result.append(String.format("\nВсего уникальных слов: %d\n", wordCounts.size()));
         result.append(String.format("Повторяющихся слов: %d\n", duplicateWords.size()));
 
         return result.toString();
     }
 
-    private void collectWords(TextComponent component, Map<String, Integer> wordCounts) {
-        if (component.getType() == TextComponentType.WORD) {
-            String word = component.getContent();
-            if (word != null && !word.trim().isEmpty()) {
-                String normalizedWord = word.toLowerCase().trim();
-                wordCounts.put(normalizedWord, wordCounts.getOrDefault(normalizedWord, 0) + 1);
-            }
-        } else {
-            for (TextComponent child : component.getChildren()) {
-                collectWords(child, wordCounts);
-            }
+    /**
+     * Слова считаются по идентификаторам словаря документа в массиве int;
+     * строки создаются только для итоговой таблицы, в порядке первых вхождений
+     */
+    private static Map<String, Integer> countWords(WordFrequencies frequencies) {
+        WordDictionary dictionary = frequencies.getDictionary();
+        Map<String, Integer> wordCounts = new HashMap<>();
+        for (int id = 0; id < dictionary.size(); id++) {
+            // merge, а не put: таблица растет в те же моменты, что и раньше,
+            // поэтому слова с равным количеством выводятся в прежнем порядке
+            wordCounts.merge(dictionary.word(id), frequencies.getCount(id), Integer::sum);
         }
+        return wordCounts;
     }
 
     @Override
@@ -80,4 +126,4 @@ public class CountIdenticalWordsOperation implements TextOperation {
     public String getName() {
         return "Подсчет одинаковых слов";
     }
-}
\ No newline at end of file
+}
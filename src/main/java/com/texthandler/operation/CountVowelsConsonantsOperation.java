@@ -2,30 +2,43 @@ package com.texthandler.operation;
 
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.texthandler.composite.TextStatistics;
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Операция подсчета гласных и согласных букв в предложениях
  */
 public class CountVowelsConsonantsOperation implements TextOperation {
-    private static final Logger logger = LogManager.getLogger(CountVowelsConsonantsOperation.class);
-    
-    private static final String VOWELS = "аеёиоуыэюяaeiouy";
-    private static final String CONSONANTS = "бвгджзйклмнпрстфхцчшщъьбвгджзклмнпрстфхцчшщbcdfghjklmnpqrstvwxyz";
-    
-    private static final Pattern VOWEL_PATTERN = Pattern.compile("[" + VOWELS + "]", Pattern.CASE_INSENSITIVE);
-    private static final Pattern CONSONANT_PATTERN = Pattern.compile("[" + CONSONANTS + "]", Pattern.CASE_INSENSITIVE);
+    private static final Counter SENTENCES = MetricsRegistry.global().counter("operation.vowels-consonants.sentences");
 
     @Override
     public String execute(TextComponent textComponent) {
         List<SentenceAnalysis> analyses = new ArrayList<>();
         collectSentenceAnalyses(textComponent, analyses);
+        return formatResult(analyses);
+    }
+
+    @Override
+    public OperationAccumulator accumulator(TextComponent document) {
+        List<SentenceAnalysis> analyses = new ArrayList<>();
+        return new OperationAccumulator() {
+            @Override
+            public void sentence(Sentence sentence) {
+                analyses.add(analyze(sentence.getComponent(), sentence.getText()));
+            }
 
+            @Override
+            public String result() {
+                return formatResult(analyses);
+            }
+        };
+    }
+
+    private String formatResult(List<SentenceAnalysis> analyses) {
         if (analyses.isEmpty()) {
             return "В тексте не найдено предложений";
         }
@@ -45,11 +58,10 @@ public class CountVowelsConsonantsOperation implements TextOperation {
             
             totalVowels += analysis.vowelCount;
             totalConsonants += analysis.consonantCount;
-            
-            logger.info("Sentence {}: vowels={}, consonants={}", 
-                       i + 1, analysis.vowelCount, analysis.consonantCount);
         }
 
+        SENTENCES.add(analyses.size());
+
         result.append("=== Общая статистика ===\n");
         result.append(String.format("Всего предложений: %d\n", analyses.size()));
         result.append(String.format("Всего гласных: %d\n", totalVowels));
@@ -63,31 +75,19 @@ public class CountVowelsConsonantsOperation implements TextOperation {
     }
 
     private void collectSentenceAnalyses(TextComponent component, List<SentenceAnalysis> analyses) {
-        if (component.getType() == TextComponentType.SENTENCE) {
-            String sentenceText = component.restore();
-            LetterCount count = countLettersInText(sentenceText);
-            analyses.add(new SentenceAnalysis(sentenceText, count.vowels, count.consonants));
-        } else {
-            for (TextComponent child : component.getChildren()) {
-                collectSentenceAnalyses(child, analyses);
-            }
-        }
+        // Количество букв берется из статистики предложения, без повторного просмотра текста
+        component.forEachDescendant(TextComponentType.SENTENCE,
+                sentence -> analyses.add(analyze(sentence, sentence.restore())));
     }
 
-    private LetterCount countLettersInText(String text) {
-        int vowels = 0;
-        int consonants = 0;
-        
-        for (char c : text.toCharArray()) {
-            String charStr = String.valueOf(c);
-            if (VOWEL_PATTERN.matcher(charStr).matches()) {
-                vowels++;
-            } else if (CONSONANT_PATTERN.matcher(charStr).matches()) {
-                consonants++;
-            }
-        }
-        
-        return new LetterCount(vowels, consonants);
+    private static SentenceAnalysis analyze(TextComponent sentence, String text) {
+        TextStatistics statistics = sentence.getStatistics();
+        return new SentenceAnalysis(text, statistics.getVowelCount(), statistics.getConsonantCount());
+    }
+
+    @Override
+    public TextComponentType getRequiredDepth() {
+        return TextComponentType.SENTENCE;
     }
 
     @Override
@@ -111,14 +111,4 @@ public class CountVowelsConsonantsOperation implements TextOperation {
             this.consonantCount = consonantCount;
         }
     }
-
-    private static class LetterCount {
-        final int vowels;
-        final int consonants;
-
-        LetterCount(int vowels, int consonants) {
-            this.vowels = vowels;
-            this.consonants = consonants;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,9 +1,11 @@
 package com.texthandler.operation;
 
+import com.texthandler.composite.ColumnarDocument;
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.texthandler.composite.TextStatistics;
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,13 +14,40 @@ import java.util.List;
  * Операция поиска предложений с самым длинным словом
  */
 public class FindSentencesWithLongestWordOperation implements TextOperation {
-    private static final Logger logger = LogManager.getLogger(FindSentencesWithLongestWordOperation.class);
+    private static final Counter FOUND = MetricsRegistry.global().counter("operation.longest-word.sentences");
 
     @Override
     public String execute(TextComponent textComponent) {
         List<SentenceInfo> allSentences = new ArrayList<>();
         collectSentences(textComponent, allSentences);
+        return formatResult(allSentences);
+    }
+
+    @Override
+    public OperationAccumulator accumulator(TextComponent document) {
+        if (document instanceof ColumnarDocument.Node) {
+            // Для колоночного документа отдельный просмотр массивов дешевле обхода узлов
+            return null;
+        }
+        List<SentenceInfo> allSentences = new ArrayList<>();
+        return new OperationAccumulator() {
+            @Override
+            public void sentence(Sentence sentence) {
+                TextStatistics statistics = sentence.getComponent().getStatistics();
+                if (statistics.getLongestWord() != null) {
+                    allSentences.add(new SentenceInfo(sentence.getText(),
+                            statistics.getLongestWord(), statistics.getMaxWordLength()));
+                }
+            }
+
+            @Override
+            public String result() {
+                return formatResult(allSentences);
+            }
+        };
+    }
 
+    private String formatResult(List<SentenceInfo> allSentences) {
         if (allSentences.isEmpty()) {
             return "В тексте не найдено предложений";
         }
@@ -34,6 +63,8 @@ public class FindSentencesWithLongestWordOperation implements TextOperation {
                 .filter(s -> s.longestWordLength == maxWordLength)
                 .toList();
 
+        FOUND.add(sentencesWithLongestWord.size());
+
         StringBuilder result = new StringBuilder();
         result.append("=== Предложения с самым длинным словом ===\n");
         result.append(String.format("Максимальная длина слова: %d символов\n\n", maxWordLength));
@@ -42,42 +73,45 @@ public class FindSentencesWithLongestWordOperation implements TextOperation {
             result.append(String.format("Предложение: %s\n", info.text));
             result.append(String.format("Самое длинное слово: \"%s\" (%d символов)\n\n", 
                          info.longestWord, info.longestWordLength));
-            
-            logger.info("Found sentence with longest word: {} ({})", info.longestWord, info.longestWordLength);
         }
 
         return result.toString();
     }
 
     private void collectSentences(TextComponent component, List<SentenceInfo> sentences) {
-        if (component.getType() == TextComponentType.SENTENCE) {
-            String sentenceText = component.restore();
-            WordInfo longestWord = findLongestWordInSentence(component);
-            if (longestWord != null) {
-                sentences.add(new SentenceInfo(sentenceText, longestWord.word, longestWord.length));
-            }
+        if (component instanceof ColumnarDocument.Node node) {
+            ColumnarDocument document = node.getDocument();
+            document.forEachOfType(node.getIndex(), TextComponentType.SENTENCE,
+                    sentence -> collectColumnarSentence(document, sentence, sentences));
         } else {
-            for (TextComponent child : component.getChildren()) {
-                collectSentences(child, sentences);
-            }
+            component.forEachDescendant(TextComponentType.SENTENCE, sentence -> {
+                // Самое длинное слово поддерживается статистикой предложения
+                TextStatistics statistics = sentence.getStatistics();
+                if (statistics.getLongestWord() != null) {
+                    sentences.add(new SentenceInfo(sentence.restore(),
+                            statistics.getLongestWord(), statistics.getMaxWordLength()));
+                }
+            });
         }
     }
 
-    private WordInfo findLongestWordInSentence(TextComponent sentence) {
-        WordInfo longestWord = null;
-        
-        for (TextComponent lexeme : sentence.getChildren()) {
-            for (TextComponent wordComponent : lexeme.getChildren()) {
-                if (wordComponent.getType() == TextComponentType.WORD) {
-                    String word = wordComponent.getContent();
-                    if (word != null && (longestWord == null || word.length() > longestWord.length)) {
-                        longestWord = new WordInfo(word, word.length());
-                    }
+    /**
+     * Колоночный документ: длины слов берутся из массива, строка создается только для самого длинного
+     */
+    private void collectColumnarSentence(ColumnarDocument document, int sentence, List<SentenceInfo> sentences) {
+        int longestWord = -1;
+        for (int lexeme = document.firstChild(sentence); lexeme >= 0; lexeme = document.nextSibling(lexeme)) {
+            for (int word = document.firstChild(lexeme); word >= 0; word = document.nextSibling(word)) {
+                if (document.type(word) == TextComponentType.WORD && document.contentLength(word) >= 0
+                        && (longestWord < 0 || document.contentLength(word) > document.contentLength(longestWord))) {
+                    longestWord = word;
                 }
             }
         }
-        
-        return longestWord;
+        if (longestWord >= 0) {
+            sentences.add(new SentenceInfo(document.node(sentence).restore(),
+                    document.content(longestWord), document.contentLength(longestWord)));
+        }
     }
 
     @Override
@@ -101,14 +135,4 @@ public class FindSentencesWithLongestWordOperation implements TextOperation {
             this.longestWordLength = longestWordLength;
         }
     }
-
-    private static class WordInfo {
-        final String word;
-        final int length;
-
-        WordInfo(String word, int length) {
-            this.word = word;
-            this.length = length;
-        }
-    }
-}
\ No newline at end of file
+}
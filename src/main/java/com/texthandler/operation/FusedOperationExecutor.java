@@ -0,0 +1,177 @@
+package com.texthandler.operation;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Выполнение нескольких операций за один обход документа.
+ * Операции, поддерживающие совместное выполнение ({@link TextOperation#accumulator(TextComponent)}),
+ * получают абзацы и предложения от общего обхода; остальные выполняются отдельно.
+ * Результаты совпадают с результатами последовательного вызова execute.
+ * Время каждой операции (ее накопителя или отдельного выполнения) записывается
+ * в гистограмму operation.&lt;класс&gt;.nanos; ошибка одной операции не мешает остальным.
+ */
+public class FusedOperationExecutor {
+    private static final Histogram WALK_TIME = MetricsRegistry.global().histogram("operation.fused.walk.nanos");
+
+    private final List<TextOperation> operations;
+    private final Histogram[] operationTimes;
+
+    public FusedOperationExecutor(List<? extends TextOperation> operations) {
+        this.operations = List.copyOf(operations);
+        this.operationTimes = new Histogram[this.operations.size()];
+        for (int i = 0; i < operationTimes.length; i++) {
+            operationTimes[i] = MetricsRegistry.global()
+                    .histogram("operation." + this.operations.get(i).getClass().getSimpleName() + ".nanos");
+        }
+    }
+
+    public List<TextOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return результаты операций в порядке их перечисления
+     * @throws RuntimeException ошибка первой из неудавшихся операций (остальные операции выполняются)
+     */
+    public List<String> execute(TextComponent document) {
+        List<Result> results = executeEach(document);
+        String[] values = new String[results.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = results.get(i).get();
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * @return результат или ошибка каждой операции в порядке их перечисления
+     */
+    public List<Result> executeEach(TextComponent document) {
+        Result[] results = new Result[operations.size()];
+        List<OperationAccumulator> accumulators = new ArrayList<>();
+        int[] positions = new int[operations.size()];
+
+        // Совместный обход имеет смысл только для документа целиком
+        for (int i = 0; i < results.length; i++) {
+            OperationAccumulator accumulator = null;
+            if (document.getType() == TextComponentType.TEXT) {
+                long start = System.nanoTime();
+                try {
+                    accumulator = operations.get(i).accumulator(document);
+                } catch (RuntimeException e) {
+                    results[i] = failed(i, e, start);
+                    continue;
+                }
+                if (accumulator != null) {
+                    positions[accumulators.size()] = i;
+                    accumulators.add(accumulator);
+                }
+            }
+        }
+
+        if (!accumulators.isEmpty()) {
+            long start = System.nanoTime();
+            long[] nanos = new long[accumulators.size()];
+            RuntimeException[] errors = new RuntimeException[accumulators.size()];
+            walk(document, accumulators.toArray(new OperationAccumulator[0]), nanos, errors);
+            WALK_TIME.recordSince(start);
+            for (int a = 0; a < accumulators.size(); a++) {
+                int position = positions[a];
+                long resultStart = System.nanoTime() - nanos[a];
+                if (errors[a] != null) {
+                    results[position] = failed(position, errors[a], resultStart);
+                    continue;
+                }
+                try {
+                    results[position] = new Result(accumulators.get(a).result(), null);
+                    operationTimes[position].recordSince(resultStart);
+                } catch (RuntimeException e) {
+                    results[position] = failed(position, e, resultStart);
+                }
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                long start = System.nanoTime();
+                try {
+                    results[i] = new Result(operations.get(i).execute(document), null);
+                    operationTimes[i].recordSince(start);
+                } catch (RuntimeException e) {
+                    results[i] = failed(i, e, start);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private Result failed(int index, RuntimeException error, long start) {
+        operationTimes[index].recordSince(start);
+        return new Result(null, error);
+    }
+
+    /**
+     * Обходит абзацы документа; предложения абзаца собираются один раз, затем каждый накопитель
+     * получает весь абзац подряд, чтобы время накопителя измерялось один раз на абзац.
+     * Накопитель, бросивший исключение, больше не получает данных.
+     */
+    private static void walk(TextComponent document, OperationAccumulator[] accumulators,
+                             long[] nanos, RuntimeException[] errors) {
+        List<OperationAccumulator.Sentence> sentences = new ArrayList<>();
+        int[] sentenceCount = new int[1];
+        for (int i = 0, paragraphCount = document.getChildCount(); i < paragraphCount; i++) {
+            TextComponent paragraph = document.getChild(i);
+            sentenceCount[0] = 0;
+            paragraph.forEachDescendant(TextComponentType.SENTENCE, sentence -> {
+                if (sentenceCount[0] == sentences.size()) {
+                    sentences.add(new OperationAccumulator.Sentence());
+                }
+                sentences.get(sentenceCount[0]++).reset(sentence);
+            });
+
+            for (int a = 0; a < accumulators.length; a++) {
+                if (errors[a] != null) {
+                    continue;
+                }
+                OperationAccumulator accumulator = accumulators[a];
+                long start = System.nanoTime();
+                try {
+                    accumulator.startParagraph(i, paragraph);
+                    for (int s = 0; s < sentenceCount[0]; s++) {
+                        accumulator.sentence(sentences.get(s));
+                    }
+                    accumulator.endParagraph(i, paragraph);
+                } catch (RuntimeException e) {
+                    errors[a] = e;
+                }
+                nanos[a] += System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Результат одной операции: значение или ошибка выполнения
+     */
+    public record Result(String value, RuntimeException error) {
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return значение операции
+         * @throws RuntimeException ошибка операции, если она не выполнилась
+         */
+        public String get() {
+            if (error != null) {
+                throw error;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.texthandler.operation;
+
+import com.texthandler.composite.TextComponent;
+
+/**
+ * Накопитель результата операции при совместном выполнении нескольких операций
+ * ({@link FusedOperationExecutor}): документ обходится один раз, и каждый узел
+ * передается накопителям всех операций. Абзацы - дочерние элементы документа,
+ * предложения - найденные в абзаце компоненты уровня SENTENCE, в порядке текста.
+ */
+public interface OperationAccumulator {
+
+    default void startParagraph(int index, TextComponent paragraph) {
+    }
+
+    default void sentence(Sentence sentence) {
+    }
+
+    default void endParagraph(int index, TextComponent paragraph) {
+    }
+
+    /**
+     * @return результат операции, совпадающий с результатом {@link TextOperation#execute(TextComponent)}
+     */
+    String result();
+
+    /**
+     * Предложение обхода. Текст восстанавливается при первом обращении и используется
+     * всеми накопителями; объект действителен до конца абзаца и затем переиспользуется.
+     */
+    final class Sentence {
+        private TextComponent component;
+        private String text;
+
+        Sentence() {
+        }
+
+        void reset(TextComponent component) {
+            this.component = component;
+            this.text = null;
+        }
+
+        public TextComponent getComponent() {
+            return component;
+        }
+
+        public String getText() {
+            if (text == null) {
+                text = component.restore();
+            }
+            return text;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.texthandler.operation;
 
+import com.texthandler.composite.PersistentTextNode;
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
 import com.texthandler.composite.TextComposite;
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -13,6 +16,8 @@ import java.util.Scanner;
  */
 public class RemoveShortSentencesOperation implements TextOperation {
     private static final Logger logger = LogManager.getLogger(RemoveShortSentencesOperation.class);
+    private static final Counter KEPT = MetricsRegistry.global().counter("operation.remove-short.kept");
+    private static final Counter REMOVED = MetricsRegistry.global().counter("operation.remove-short.removed");
     private Integer minWordCount; // Делаем nullable, чтобы запрашивать при выполнении
 
     public RemoveShortSentencesOperation(int minWordCount) {
@@ -25,13 +30,49 @@ public class RemoveShortSentencesOperation implements TextOperation {
 
     @Override
     public String execute(TextComponent textComponent) {
+        return formatResult(filter(textComponent));
+    }
+
+    /**
+     * @return документ без коротких предложений; результат для неизменяемого дерева
+     * разделяет с ним абзацы, из которых ничего не удалено
+     */
+    public TextComponent filter(TextComponent textComponent) {
         // Запрашиваем минимальное количество слов ТОЛЬКО при выполнении операции
         if (minWordCount == null) {
             minWordCount = getMinWordCountFromUser();
         }
         
-        TextComponent filteredText = filterText(textComponent);
-        
+        return filterText(textComponent);
+    }
+
+    @Override
+    public OperationAccumulator accumulator(TextComponent document) {
+        if (document instanceof PersistentTextNode) {
+            // Неизменяемое дерево фильтруется с разделением структуры, см. filterPersistent
+            return null;
+        }
+        if (minWordCount == null) {
+            minWordCount = getMinWordCountFromUser();
+        }
+        TextComponent newText = new TextComposite(TextComponentType.TEXT);
+        return new OperationAccumulator() {
+            @Override
+            public void endParagraph(int index, TextComponent paragraph) {
+                TextComponent filteredParagraph = filterParagraph(paragraph);
+                if (filteredParagraph.getChildCount() > 0) {
+                    newText.add(filteredParagraph);
+                }
+            }
+
+            @Override
+            public String result() {
+                return formatResult(newText);
+            }
+        };
+    }
+
+    private String formatResult(TextComponent filteredText) {
         StringBuilder result = new StringBuilder();
         result.append(String.format("=== Удалены предложения с количеством слов меньше %d ===\n\n", minWordCount));
         result.append("Результирующий текст:\n");
@@ -41,11 +82,14 @@ public class RemoveShortSentencesOperation implements TextOperation {
     }
 
     private TextComponent filterText(TextComponent component) {
+        if (component instanceof PersistentTextNode persistent) {
+            return filterPersistent(persistent);
+        }
         if (component.getType() == TextComponentType.TEXT) {
             TextComponent newText = new TextComposite(TextComponentType.TEXT);
-            for (TextComponent paragraph : component.getChildren()) {
-                TextComponent filteredParagraph = filterParagraph(paragraph);
-                if (!filteredParagraph.getChildren().isEmpty()) {
+            for (int i = 0, paragraphCount = component.getChildCount(); i < paragraphCount; i++) {
+                TextComponent filteredParagraph = filterParagraph(component.getChild(i));
+                if (filteredParagraph.getChildCount() > 0) {
                     newText.add(filteredParagraph);
                 }
             }
@@ -56,36 +100,56 @@ public class RemoveShortSentencesOperation implements TextOperation {
         return component;
     }
 
+    /**
+     * Неизменяемое дерево фильтруется с разделением структуры:
+     * абзацы без удаленных предложений переходят в результат без копирования
+     */
+    private TextComponent filterPersistent(PersistentTextNode component) {
+        if (component.getType() == TextComponentType.TEXT) {
+            // Абзацы неизменяемого документа - тоже неизменяемые узлы
+            return component
+                    .mapChildren(paragraph -> ((PersistentTextNode) paragraph).filterChildren(this::keepSentence))
+                    .filterChildren(paragraph -> paragraph.getChildCount() > 0);
+        } else if (component.getType() == TextComponentType.PARAGRAPH) {
+            return component.filterChildren(this::keepSentence);
+        }
+        return component;
+    }
+
     private TextComponent filterParagraph(TextComponent paragraph) {
         TextComponent newParagraph = new TextComposite(TextComponentType.PARAGRAPH);
-        
-        for (TextComponent sentence : paragraph.getChildren()) {
-            if (sentence.getType() == TextComponentType.SENTENCE) {
-                int wordCount = countWordsInSentence(sentence);
-                if (wordCount >= minWordCount) {
-                    newParagraph.add(sentence);
-                    logger.info("Kept sentence with {} words: {}", wordCount, sentence.restore());
-                } else {
-                    logger.info("Removed sentence with {} words: {}", wordCount, sentence.restore());
-                }
+        boolean removed = false;
+
+        for (int i = 0, sentenceCount = paragraph.getChildCount(); i < sentenceCount; i++) {
+            TextComponent sentence = paragraph.getChild(i);
+            if (keepSentence(sentence)) {
+                newParagraph.add(sentence);
+            } else {
+                removed = true;
             }
         }
-        
-        return newParagraph;
+
+        // Абзац без удаленных предложений используется как есть
+        return removed ? newParagraph : paragraph;
     }
 
-    private int countWordsInSentence(TextComponent sentence) {
-        int wordCount = 0;
-        
-        for (TextComponent lexeme : sentence.getChildren()) {
-            for (TextComponent word : lexeme.getChildren()) {
-                if (word.getType() == TextComponentType.WORD) {
-                    wordCount++;
-                }
-            }
+    private boolean keepSentence(TextComponent sentence) {
+        if (sentence.getType() != TextComponentType.SENTENCE) {
+            return false;
         }
-        
-        return wordCount;
+        int wordCount = countWordsInSentence(sentence);
+        // Решения только подсчитываются: текст предложения для журнала не восстанавливается
+        if (wordCount >= minWordCount) {
+            KEPT.increment();
+            return true;
+        }
+        REMOVED.increment();
+        return false;
+    }
+
+    private int countWordsInSentence(TextComponent sentence) {
+        // Количество слов поддерживается статистикой предложения
+        return sentence.getStatistics().getWordCount();
     }
 
     private int getMinWordCountFromUser() {
@@ -3,8 +3,8 @@ package com.texthandler.operation;
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
 import com.texthandler.composite.TextComposite;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +13,7 @@ import java.util.List;
  * Операция сортировки абзацев по количеству предложений
  */
 public class SortParagraphsBySentenceCountOperation implements TextOperation {
-    private static final Logger logger = LogManager.getLogger(SortParagraphsBySentenceCountOperation.class);
+    private static final Counter PARAGRAPHS = MetricsRegistry.global().counter("operation.sort-paragraphs.paragraphs");
 
     @Override
     public String execute(TextComponent textComponent) {
@@ -24,15 +24,35 @@ public class SortParagraphsBySentenceCountOperation implements TextOperation {
         List<ParagraphInfo> paragraphInfos = new ArrayList<>();
         
         // Собираем информацию о абзацах
-        for (int i = 0; i < textComponent.getChildren().size(); i++) {
+        for (int i = 0, paragraphCount = textComponent.getChildCount(); i < paragraphCount; i++) {
             TextComponent paragraph = textComponent.getChild(i);
-            int sentenceCount = paragraph.getChildren().size();
-            paragraphInfos.add(new ParagraphInfo(i, paragraph, sentenceCount));
+            paragraphInfos.add(new ParagraphInfo(i, paragraph, paragraph.getChildCount()));
         }
+        return sortParagraphs(paragraphInfos);
+    }
+
+    @Override
+    public OperationAccumulator accumulator(TextComponent document) {
+        List<ParagraphInfo> paragraphInfos = new ArrayList<>();
+        return new OperationAccumulator() {
+            @Override
+            public void startParagraph(int index, TextComponent paragraph) {
+                paragraphInfos.add(new ParagraphInfo(index, paragraph, paragraph.getChildCount()));
+            }
+
+            @Override
+            public String result() {
+                return sortParagraphs(paragraphInfos);
+            }
+        };
+    }
 
+    private String sortParagraphs(List<ParagraphInfo> paragraphInfos) {
         // Сортируем по количеству предложений
         paragraphInfos.sort((a, b) -> Integer.compare(a.sentenceCount, b.sentenceCount));
 
+        PARAGRAPHS.add(paragraphInfos.size());
+
         // Создаем новый отсортированный текст
         TextComponent sortedText = new TextComposite(TextComponentType.TEXT);
         StringBuilder result = new StringBuilder();
@@ -43,13 +63,16 @@ public class SortParagraphsBySentenceCountOperation implements TextOperation {
             result.append(String.format("Абзац %d (предложений: %d):\n", 
                          info.originalIndex + 1, info.sentenceCount));
             result.append(info.paragraph.restore()).append("\n\n");
-            
-            logger.info("Paragraph {} has {} sentences", info.originalIndex + 1, info.sentenceCount);
         }
 
         return result.toString();
     }
 
+    @Override
+    public TextComponentType getRequiredDepth() {
+        return TextComponentType.SENTENCE;
+    }
+
     @Override
     public String getDescription() {
         return "Сортирует абзацы по количеству предложений (по возрастанию)";
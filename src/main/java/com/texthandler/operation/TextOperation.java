@@ -1,6 +1,7 @@
 package com.texthandler.operation;
 
 import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
 
 /**
  * Базовый интерфейс для операций над текстом
@@ -24,4 +25,24 @@ public interface TextOperation {
      * @return название операции
      */
     String getName();
-}
\ No newline at end of file
+
+    /**
+     * Самый глубокий уровень разбора, нужный операции. Цепочка парсеров может
+     * остановиться на этом уровне: компоненты последнего уровня хранят свой текст
+     * как содержимое, а их restore() возвращает его без разбора.
+     * @return тип компонентов, до которых нужно разобрать текст
+     */
+    default TextComponentType getRequiredDepth() {
+        return TextComponentType.WORD;
+    }
+
+    /**
+     * Накопитель для совместного выполнения с другими операциями за один обход документа
+     * (см. {@link FusedOperationExecutor})
+     * @param document документ уровня TEXT, который будет обойден
+     * @return накопитель или null, если операция выполняется только через execute
+     */
+    default OperationAccumulator accumulator(TextComponent document) {
+        return null;
+    }
+}
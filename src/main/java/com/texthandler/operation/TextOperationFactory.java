@@ -1,5 +1,8 @@
 package com.texthandler.operation;
 
+import com.texthandler.composite.TextComponentType;
+
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +38,19 @@ public class TextOperationFactory {
         return OPERATIONS.keySet();
     }
     
+    /**
+     * Самый глубокий уровень разбора, нужный хотя бы одной из операций
+     */
+    public static TextComponentType getRequiredDepth(Collection<? extends TextOperation> operations) {
+        TextComponentType depth = TextComponentType.PARAGRAPH;
+        for (TextOperation operation : operations) {
+            if (operation.getRequiredDepth().compareTo(depth) > 0) {
+                depth = operation.getRequiredDepth();
+            }
+        }
+        return depth;
+    }
+    
     public static String getOperationMenu() {
         StringBuilder menu = new StringBuilder();
         menu.append("=== Доступные операции ===\n");
@@ -0,0 +1,148 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.composite.TextComposite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Инкрементальный разбор: после правки текста заново разбираются только затронутые абзацы,
+ * остальные узлы переносятся в новое дерево без изменений.
+ * Разделители абзацев целиком состоят из пробельных символов, поэтому разбиение участка,
+ * ограниченного непробельными символами вне правки, совпадает с разбиением всего текста.
+ */
+public class IncrementalTextParser {
+    private final TextParser paragraphParser;
+
+    /**
+     * Абзацы разбираются цепочкой абзац - предложение - лексема
+     */
+    public IncrementalTextParser() {
+        this(createParagraphChain());
+    }
+
+    /**
+     * @param paragraphParser парсер, возвращающий компонент PARAGRAPH
+     */
+    public IncrementalTextParser(TextParser paragraphParser) {
+        this.paragraphParser = paragraphParser;
+    }
+
+    /**
+     * Полный разбор документа с запоминанием границ абзацев
+     */
+    public ParsedDocument parse(String text) {
+        TextComponent root = new TextComposite(TextComponentType.TEXT);
+        List<int[]> spans = new ArrayList<>();
+        parseParagraphs(text, 0, text.length(), root, spans);
+        return createDocument(text, root, spans, 0, spans.size());
+    }
+
+    /**
+     * Применяет правку и заново разбирает только затронутые абзацы.
+     * Исходный документ не изменяется.
+     * @param document документ до правки
+     * @param offset смещение правки
+     * @param removedLength количество удаляемых символов
+     * @param insertedText вставляемый текст
+     * @return документ после правки
+     */
+    public ParsedDocument applyEdit(ParsedDocument document, int offset, int removedLength, String insertedText) {
+        String oldText = document.getText();
+        Objects.checkFromIndexSize(offset, removedLength, oldText.length());
+        int editEnd = offset + removedLength;
+        int delta = insertedText.length() - removedLength;
+        String text = oldText.substring(0, offset) + insertedText + oldText.substring(editEnd);
+
+        // Затронутые абзацы: от последнего, начинающегося до правки,
+        // до первого, заканчивающегося после нее
+        int paragraphCount = document.getParagraphCount();
+        int first = lastStartBefore(document, offset);
+        int last = firstEndAfter(document, editEnd);
+        int regionStart = first >= 0 ? document.getParagraphStart(first) : 0;
+        int regionEnd = last < paragraphCount ? document.getParagraphEnd(last) + delta : text.length();
+        int from = Math.max(first, 0);
+        int to = Math.min(last + 1, paragraphCount);
+
+        TextComponent root = new TextComposite(TextComponentType.TEXT);
+        List<int[]> spans = new ArrayList<>(paragraphCount + 1);
+        for (int i = 0; i < from; i++) {
+            root.add(document.getRoot().getChild(i));
+            spans.add(new int[] {document.getParagraphStart(i), document.getParagraphEnd(i)});
+        }
+        parseParagraphs(text, regionStart, regionEnd, root, spans);
+        int shiftFrom = spans.size();
+        for (int i = to; i < paragraphCount; i++) {
+            root.add(document.getRoot().getChild(i));
+            spans.add(new int[] {document.getParagraphStart(i), document.getParagraphEnd(i)});
+        }
+        return createDocument(text, root, spans, delta, shiftFrom);
+    }
+
+    private void parseParagraphs(String text, int start, int end, TextComponent root, List<int[]> spans) {
+        ParagraphScanner.forEachParagraph(text, start, end, (paragraphStart, paragraphEnd) -> {
+            root.add(paragraphParser.parse(text.substring(paragraphStart, paragraphEnd)));
+            spans.add(new int[] {paragraphStart, paragraphEnd});
+        });
+    }
+
+    /**
+     * @param shiftFrom индекс первого абзаца, смещения которого сдвигаются на delta
+     */
+    private static ParsedDocument createDocument(String text, TextComponent root, List<int[]> spans,
+                                                 int delta, int shiftFrom) {
+        int[] starts = new int[spans.size()];
+        int[] ends = new int[spans.size()];
+        for (int i = 0; i < starts.length; i++) {
+            int shift = i >= shiftFrom ? delta : 0;
+            starts[i] = spans.get(i)[0] + shift;
+            ends[i] = spans.get(i)[1] + shift;
+        }
+        return new ParsedDocument(text, root, starts, ends);
+    }
+
+    /**
+     * @return индекс последнего абзаца, начинающегося строго до offset, или -1
+     */
+    private static int lastStartBefore(ParsedDocument document, int offset) {
+        int low = 0;
+        int high = document.getParagraphCount() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (document.getParagraphStart(middle) < offset) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * @return индекс первого абзаца, заканчивающегося строго после offset, или количество абзацев
+     */
+    private static int firstEndAfter(ParsedDocument document, int offset) {
+        int low = 0;
+        int high = document.getParagraphCount() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (document.getParagraphEnd(middle) > offset) {
+                high = middle - 1;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static TextParser createParagraphChain() {
+        TextParser paragraphParser = new ParagraphLevelParser();
+        TextParser sentenceParser = new SentenceLevelParser();
+        paragraphParser.setNext(sentenceParser);
+        sentenceParser.setNext(new LexemeLevelParser());
+        return paragraphParser;
+    }
+}
@@ -0,0 +1,39 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.LazyTextComposite;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+
+/**
+ * Ленивое звено цепочки: вместо разбора запоминает текст фрагмента и возвращает
+ * {@link LazyTextComposite}, который вызовет обернутый парсер при первом обращении
+ * к дочерним элементам. Вставляется перед парсерами абзацев и предложений.
+ */
+public class LazyTextParser extends TextParser {
+    private final TextComponentType type;
+    private final TextParser delegate;
+
+    /**
+     * @param type тип компонента, который возвращает обернутый парсер
+     * @param delegate парсер фрагмента
+     */
+    public LazyTextParser(TextComponentType type, TextParser delegate) {
+        this.type = type;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void setNext(TextParser parser) {
+        delegate.setNext(parser);
+    }
+
+    @Override
+    public String getSignature() {
+        return getClass().getName() + "(" + type + ": " + delegate.getSignature() + ")";
+    }
+
+    @Override
+    public TextComponent parse(String text) {
+        return new LazyTextComposite(type, () -> delegate.parse(text));
+    }
+}
@@ -4,8 +4,11 @@ import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
 import com.texthandler.composite.TextComposite;
 import com.texthandler.composite.TextLeaf;
+import com.texthandler.metrics.Counter;
+import com.texthandler.metrics.MetricsRegistry;
 import com.texthandler.util.RegexConstants;
 
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,45 +16,57 @@ import java.util.regex.Pattern;
  * Парсер уровня лексемы - разбивает на слова и знаки препинания
  */
 public class LexemeLevelParser extends TextParser {
+    private static final Pattern WORD_PATTERN = Pattern.compile(RegexConstants.WORD_PATTERN);
+    private static final Pattern PUNCTUATION_PATTERN = Pattern.compile(RegexConstants.PUNCTUATION_PATTERN);
+    // Лексем много и они короткие: считается только их количество, без замера времени
+    private static final Counter LEXEMES = MetricsRegistry.global().counter("parser.lexemes");
 
     @Override
     public TextComponent parse(String text) {
+        LEXEMES.increment();
         TextComponent lexemeComponent = new TextComposite(TextComponentType.LEXEME);
-        
-        Pattern wordPattern = Pattern.compile(RegexConstants.WORD_PATTERN);
-        Pattern punctuationPattern = Pattern.compile(RegexConstants.PUNCTUATION_PATTERN);
-        
+        forEachPart(text, (type, part) -> lexemeComponent.add(new TextLeaf(type, part)));
+        return lexemeComponent;
+    }
+
+    /**
+     * Текст, который восстановит лексема после разбора до слов и знаков препинания:
+     * части подряд, без символов, не попавших ни в слово, ни в знак препинания.
+     * Нужен цепочкам, остановленным выше уровня слов, чтобы восстановленный текст
+     * не зависел от глубины разбора.
+     */
+    static void appendRestored(String text, StringBuilder out) {
+        forEachPart(text, (type, part) -> out.append(part));
+    }
+
+    /**
+     * Перебирает слова и непустые знаки препинания лексемы в порядке следования
+     */
+    private static void forEachPart(String text, BiConsumer<TextComponentType, String> consumer) {
         int lastEnd = 0;
-        Matcher wordMatcher = wordPattern.matcher(text);
+        Matcher wordMatcher = WORD_PATTERN.matcher(text);
         
         while (wordMatcher.find()) {
-            // Добавляем знаки препинания перед словом
+            // Знаки препинания перед словом
             if (wordMatcher.start() > lastEnd) {
-                String punctuation = text.substring(lastEnd, wordMatcher.start());
-                Matcher punctMatcher = punctuationPattern.matcher(punctuation);
-                while (punctMatcher.find()) {
-                    if (!punctMatcher.group().trim().isEmpty()) {
-                        lexemeComponent.add(new TextLeaf(TextComponentType.PUNCTUATION, punctMatcher.group()));
-                    }
-                }
+                forEachPunctuation(text.substring(lastEnd, wordMatcher.start()), consumer);
             }
-            
-            // Добавляем слово
-            lexemeComponent.add(new TextLeaf(TextComponentType.WORD, wordMatcher.group()));
+            consumer.accept(TextComponentType.WORD, wordMatcher.group());
             lastEnd = wordMatcher.end();
         }
         
-        // Добавляем оставшиеся знаки препинания
+        // Оставшиеся знаки препинания
         if (lastEnd < text.length()) {
-            String punctuation = text.substring(lastEnd);
-            Matcher punctMatcher = punctuationPattern.matcher(punctuation);
-            while (punctMatcher.find()) {
-                if (!punctMatcher.group().trim().isEmpty()) {
-                    lexemeComponent.add(new TextLeaf(TextComponentType.PUNCTUATION, punctMatcher.group()));
-                }
+            forEachPunctuation(text.substring(lastEnd), consumer);
+        }
+    }
+
+    private static void forEachPunctuation(String punctuation, BiConsumer<TextComponentType, String> consumer) {
+        Matcher punctMatcher = PUNCTUATION_PATTERN.matcher(punctuation);
+        while (punctMatcher.find()) {
+            if (!punctMatcher.group().trim().isEmpty()) {
+                consumer.accept(TextComponentType.PUNCTUATION, punctMatcher.group());
             }
         }
-        
-        return lexemeComponent;
     }
-}
\ No newline at end of file
+}
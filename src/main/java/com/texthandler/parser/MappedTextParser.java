@@ -0,0 +1,180 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.composite.TextComposite;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Разбор файла через отображение в память (FileChannel.map).
+ * Файл делится на фрагменты, границы которых совпадают с разделителями абзацев,
+ * фрагменты декодируются из UTF-8 и разбираются параллельно парсером уровня документа,
+ * а полученные абзацы объединяются в один компонент TEXT в исходном порядке.
+ * Разделители абзацев состоят только из ASCII-пробелов, которые в UTF-8 не встречаются
+ * внутри многобайтовых символов, поэтому границы ищутся прямо в байтах.
+ */
+public class MappedTextParser extends TextParser {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final TextParser documentParser;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * @param documentParser парсер, возвращающий компонент TEXT (цепочка или SinglePassTextParser)
+     */
+    public MappedTextParser(TextParser documentParser) {
+        this(documentParser, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param documentParser парсер, возвращающий компонент TEXT
+     * @param pool пул для декодирования и разбора фрагментов
+     * @param chunkSize желаемый размер фрагмента в байтах
+     */
+    public MappedTextParser(TextParser documentParser, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.documentParser = documentParser;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public TextComponent parse(String text) {
+        return documentParser.parse(text);
+    }
+
+    @Override
+    public TextComponent parse(Reader reader) throws IOException {
+        return documentParser.parse(reader);
+    }
+
+    @Override
+    public TextComponent parse(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be mapped: " + path + " (" + size + " bytes)");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        List<Future<TextComponent>> chunks = new ArrayList<>();
+        ByteCharSequence bytes = new ByteCharSequence(buffer);
+        int start = 0;
+        while (start < bytes.length()) {
+            int end = findChunkEnd(bytes, start);
+            ByteBuffer slice = buffer.slice(start, end - start);
+            chunks.add(pool.submit(() -> documentParser.parse(decode(slice))));
+            start = end;
+        }
+
+        // Абзацы переходят во владение общего корня, чтобы он кэшировал текст и статистику
+        TextComposite textComponent = new TextComposite(TextComponentType.TEXT);
+        for (Future<TextComponent> chunk : chunks) {
+            textComponent.moveChildrenFrom(await(chunk));
+        }
+        return textComponent;
+    }
+
+    /**
+     * Конец фрагмента: первый разделитель абзацев после желаемого размера или конец файла
+     */
+    private int findChunkEnd(ByteCharSequence bytes, int start) {
+        int length = bytes.length();
+        if (length - start <= chunkSize) {
+            return length;
+        }
+        // Начинаем поиск с начала пробельной последовательности, чтобы разделитель определился целиком
+        int position = start + chunkSize;
+        while (position > start && ParagraphScanner.isWhitespace(bytes.charAt(position - 1))) {
+            position--;
+        }
+        ParagraphScanner scanner = new ParagraphScanner(bytes, position, length);
+        return scanner.findNextSeparator() ? scanner.separatorEnd() : length;
+    }
+
+    private static String decode(ByteBuffer slice) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder().decode(slice).toString();
+        } catch (IOException e) {
+            throw new MalformedChunkException(e);
+        }
+    }
+
+    private static TextComponent await(Future<TextComponent> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing mapped file", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MalformedChunkException) {
+                throw (IOException) cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to parse mapped file", cause);
+        }
+    }
+
+    /**
+     * Ошибка декодирования фрагмента, передаваемая из задачи пула
+     */
+    private static class MalformedChunkException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MalformedChunkException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Представление байтов буфера как символов Latin-1: достаточно для поиска ASCII-разделителей
+     */
+    private static class ByteCharSequence implements CharSequence {
+        private final ByteBuffer buffer;
+
+        ByteCharSequence(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteCharSequence(buffer.slice(start, end - start));
+        }
+
+        @Override
+        public String toString() {
+            return StandardCharsets.ISO_8859_1.decode(buffer.duplicate()).toString();
+        }
+    }
+}
@@ -4,8 +4,12 @@ import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
 import com.texthandler.composite.TextComposite;
 import com.texthandler.interpreter.ArithmeticExpressionProcessor;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
 import com.texthandler.util.RegexConstants;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,6 +17,8 @@ import java.util.regex.Pattern;
  * Парсер уровня абзаца - разбивает на предложения
  */
 public class ParagraphLevelParser extends TextParser {
+    private static final Pattern SENTENCE_PATTERN = Pattern.compile(RegexConstants.SENTENCE_SEPARATOR);
+    private static final Histogram PARSE_TIME = MetricsRegistry.global().histogram("parser.paragraph.nanos");
     private final ArithmeticExpressionProcessor expressionProcessor;
 
     public ParagraphLevelParser() {
@@ -21,22 +27,42 @@ public class ParagraphLevelParser extends TextParser {
 
     @Override
     public TextComponent parse(String text) {
+        long start = System.nanoTime();
         TextComponent paragraphComponent = new TextComposite(TextComponentType.PARAGRAPH);
-        
+
+        for (String sentenceText : splitSentences(text)) {
+            TextComponent sentenceComponent;
+            if (nextParser != null) {
+                sentenceComponent = nextParser.parse(sentenceText);
+            } else {
+                // Последний уровень цепочки: предложение хранит текст, который восстановило бы
+                // полностью разобранное предложение, - результат операций не зависит от глубины
+                sentenceComponent = new TextComposite(TextComponentType.SENTENCE);
+                sentenceComponent.setContent(SentenceLevelParser.restoredText(sentenceText));
+            }
+            paragraphComponent.add(sentenceComponent);
+        }
+
+        PARSE_TIME.recordSince(start);
+        return paragraphComponent;
+    }
+
+    /**
+     * Вычисляет арифметические выражения и делит абзац на непустые предложения
+     */
+    List<String> splitSentences(String text) {
+        List<String> sentences = new ArrayList<>();
+
         // Сначала обрабатываем арифметические выражения
         text = expressionProcessor.processExpressions(text);
         
-        Pattern sentencePattern = Pattern.compile(RegexConstants.SENTENCE_SEPARATOR);
-        Matcher matcher = sentencePattern.matcher(text);
+        Matcher matcher = SENTENCE_PATTERN.matcher(text);
         
         int lastEnd = 0;
         while (matcher.find()) {
             String sentenceText = text.substring(lastEnd, matcher.end()).trim();
             if (!sentenceText.isEmpty()) {
-                TextComponent sentenceComponent = 
-                    nextParser != null ? nextParser.parse(sentenceText) 
-                                       : new TextComposite(TextComponentType.SENTENCE);
-                paragraphComponent.add(sentenceComponent);
+                sentences.add(sentenceText);
             }
             lastEnd = matcher.end();
         }
@@ -45,13 +71,10 @@ public class ParagraphLevelParser extends TextParser {
         if (lastEnd < text.length()) {
             String sentenceText = text.substring(lastEnd).trim();
             if (!sentenceText.isEmpty()) {
-                TextComponent sentenceComponent = 
-                    nextParser != null ? nextParser.parse(sentenceText) 
-                                       : new TextComposite(TextComponentType.SENTENCE);
-                paragraphComponent.add(sentenceComponent);
+                sentences.add(sentenceText);
             }
         }
         
-        return paragraphComponent;
+        return sentences;
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.texthandler.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Читает абзацы из потока символов порциями ограниченного размера.
+ * Разделитель абзацев распознается, только когда за его пробельной последовательностью
+ * уже прочитан непробельный символ, поэтому граница, попавшая на стык порций,
+ * определяется так же, как при разборе всего текста целиком.
+ * В памяти одновременно находятся не более одного абзаца и одной порции.
+ */
+public class ParagraphReader {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] chunk;
+    private final StringBuilder pending = new StringBuilder();
+    private int start;
+    private int scanFrom;
+    private boolean endOfInput;
+
+    public ParagraphReader(Reader reader) {
+        this(reader, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParagraphReader(Reader reader, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.reader = reader;
+        this.chunk = new char[chunkSize];
+    }
+
+    /**
+     * @return следующий непустой абзац без пробелов по краям или null, если поток закончился
+     */
+    public String nextParagraph() throws IOException {
+        while (true) {
+            int limit = endOfInput ? pending.length() : stableLimit();
+
+            ParagraphScanner scanner = new ParagraphScanner(pending, scanFrom, limit);
+            if (scanner.findNextSeparator()) {
+                String paragraph = trimmed(start, scanner.separatorStart());
+                start = scanner.separatorEnd();
+                scanFrom = start;
+                if (paragraph != null) {
+                    return paragraph;
+                }
+                continue;
+            }
+
+            if (endOfInput) {
+                String paragraph = trimmed(start, pending.length());
+                start = pending.length();
+                scanFrom = start;
+                return paragraph;
+            }
+
+            // Разделителей до устойчивой границы нет - дочитываем следующую порцию
+            scanFrom = Math.max(limit, start);
+            readChunk();
+        }
+    }
+
+    /**
+     * Позиция после последнего непробельного символа: разделители до нее уже не изменятся
+     */
+    private int stableLimit() {
+        int limit = pending.length();
+        while (limit > start && ParagraphScanner.isWhitespace(pending.charAt(limit - 1))) {
+            limit--;
+        }
+        return Math.max(limit, scanFrom);
+    }
+
+    private void readChunk() throws IOException {
+        if (start > 0) {
+            pending.delete(0, start);
+            scanFrom -= start;
+            start = 0;
+        }
+        int read = reader.read(chunk);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            pending.append(chunk, 0, read);
+        }
+    }
+
+    private String trimmed(int from, int to) {
+        while (from < to && pending.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && pending.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return from < to ? pending.substring(from, to) : null;
+    }
+}
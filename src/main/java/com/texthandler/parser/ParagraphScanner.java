@@ -0,0 +1,118 @@
+package com.texthandler.parser;
+
+/**
+ * Посимвольный поиск границ абзацев без регулярных выражений.
+ * Повторяет семантику {@link com.texthandler.util.RegexConstants#PARAGRAPH_SEPARATOR}
+ * и разбиения {@code String.split} с последующим {@code trim()}.
+ */
+public class ParagraphScanner {
+    private final CharSequence text;
+    private final int end;
+    private int position;
+    private int separatorStart = -1;
+    private int separatorEnd = -1;
+
+    /**
+     * Обработчик найденного фрагмента текста
+     */
+    @FunctionalInterface
+    public interface SpanConsumer {
+        void accept(int start, int end);
+    }
+
+    public ParagraphScanner(CharSequence text, int start, int end) {
+        this.text = text;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Ищет следующий разделитель абзацев, начиная с текущей позиции
+     * @return true, если разделитель найден
+     */
+    public boolean findNextSeparator() {
+        int i = position;
+        while (i < end) {
+            if (text.charAt(i) != '\n') {
+                i++;
+                continue;
+            }
+            // Первый перевод строки в пробельной последовательности
+            int newline = i;
+            int lastNewline = newline;
+            int runEnd = newline + 1;
+            while (runEnd < end && isWhitespace(text.charAt(runEnd))) {
+                if (text.charAt(runEnd) == '\n') {
+                    lastNewline = runEnd;
+                }
+                runEnd++;
+            }
+
+            if (lastNewline > newline) {
+                // \n\s*\n
+                return found(newline, lastNewline + 1);
+            }
+            if (newline + 1 < runEnd && text.charAt(newline + 1) == '\t') {
+                // \n\t
+                return found(newline, newline + 2);
+            }
+            if (runEnd - newline - 1 >= 4) {
+                // \n\s{4,}
+                return found(newline, runEnd);
+            }
+            i = runEnd;
+        }
+        position = end;
+        return false;
+    }
+
+    public int separatorStart() {
+        return separatorStart;
+    }
+
+    public int separatorEnd() {
+        return separatorEnd;
+    }
+
+    private boolean found(int start, int stop) {
+        separatorStart = start;
+        separatorEnd = stop;
+        position = stop;
+        return true;
+    }
+
+    /**
+     * Передает обработчику границы всех непустых абзацев диапазона без пробелов по краям
+     */
+    public static void forEachParagraph(CharSequence text, int start, int end, SpanConsumer consumer) {
+        ParagraphScanner scanner = new ParagraphScanner(text, start, end);
+        int pieceStart = start;
+        while (scanner.findNextSeparator()) {
+            acceptTrimmed(text, pieceStart, scanner.separatorStart(), consumer);
+            pieceStart = scanner.separatorEnd();
+        }
+        acceptTrimmed(text, pieceStart, end, consumer);
+    }
+
+    /**
+     * Обрезает края фрагмента так же, как {@code String.trim()}, и передает его, если он не пуст
+     */
+    static void acceptTrimmed(CharSequence text, int start, int end, SpanConsumer consumer) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end) {
+            consumer.accept(start, end);
+        }
+    }
+
+    /**
+     * Пробельный символ в смысле класса {@code \s} регулярных выражений
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,47 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+
+/**
+ * Разобранный документ: исходный текст, дерево TEXT и границы абзацев в тексте.
+ * Границы нужны {@link IncrementalTextParser} для поиска абзацев, затронутых правкой.
+ */
+public class ParsedDocument {
+    private final String text;
+    private final TextComponent root;
+    private final int[] paragraphStarts;
+    private final int[] paragraphEnds;
+
+    ParsedDocument(String text, TextComponent root, int[] paragraphStarts, int[] paragraphEnds) {
+        this.text = text;
+        this.root = root;
+        this.paragraphStarts = paragraphStarts;
+        this.paragraphEnds = paragraphEnds;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public TextComponent getRoot() {
+        return root;
+    }
+
+    public int getParagraphCount() {
+        return paragraphStarts.length;
+    }
+
+    /**
+     * @return смещение первого символа абзаца в тексте
+     */
+    public int getParagraphStart(int index) {
+        return paragraphStarts[index];
+    }
+
+    /**
+     * @return смещение за последним символом абзаца в тексте
+     */
+    public int getParagraphEnd(int index) {
+        return paragraphEnds[index];
+    }
+}
@@ -0,0 +1,61 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponentType;
+
+/**
+ * Фабрика цепочек парсеров документ - абзац - предложение - лексема
+ */
+public class ParserChainFactory {
+
+    private ParserChainFactory() {
+    }
+
+    /**
+     * Цепочка, разбирающая документ сразу до слов и знаков препинания
+     */
+    public static TextParser createChain() {
+        return createChain(TextComponentType.WORD);
+    }
+
+    /**
+     * Цепочка, которая останавливается на заданном уровне. Компоненты последнего
+     * уровня не имеют дочерних элементов и хранят текст как содержимое: предложения и лексемы -
+     * тот текст, который восстановили бы после полного разбора (символы вне слов и знаков
+     * препинания отбрасываются), абзацы - исходный текст абзаца.
+     * @param depth самый глубокий нужный уровень (PARAGRAPH, SENTENCE, LEXEME или WORD)
+     */
+    public static TextParser createChain(TextComponentType depth) {
+        TextParser textParser = new TextLevelParser();
+        if (depth.compareTo(TextComponentType.PARAGRAPH) <= 0) {
+            return textParser;
+        }
+        TextParser paragraphParser = new ParagraphLevelParser();
+        textParser.setNext(paragraphParser);
+        if (depth.compareTo(TextComponentType.SENTENCE) <= 0) {
+            return textParser;
+        }
+        TextParser sentenceParser = new SentenceLevelParser();
+        paragraphParser.setNext(sentenceParser);
+        if (depth.compareTo(TextComponentType.LEXEME) <= 0) {
+            return textParser;
+        }
+        sentenceParser.setNext(new LexemeLevelParser());
+        return textParser;
+    }
+
+    /**
+     * Ленивая цепочка: документ делится на абзацы сразу, а абзацы и предложения
+     * разбираются только при первом обращении к их дочерним элементам
+     */
+    public static TextParser createLazyChain() {
+        TextParser textParser = new TextLevelParser();
+        TextParser paragraphParser = new LazyTextParser(TextComponentType.PARAGRAPH, new ParagraphLevelParser());
+        TextParser sentenceParser = new LazyTextParser(TextComponentType.SENTENCE, new SentenceLevelParser());
+        TextParser lexemeParser = new LexemeLevelParser();
+
+        textParser.setNext(paragraphParser);
+        paragraphParser.setNext(sentenceParser);
+        sentenceParser.setNext(lexemeParser);
+        return textParser;
+    }
+}
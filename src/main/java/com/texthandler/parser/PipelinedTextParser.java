@@ -0,0 +1,231 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.composite.TextComposite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Конвейерный разбор документа. Уровни цепочки выполняются отдельными стадиями,
+ * связанными ограниченными очередями:
+ * документ - абзацы (текущий поток), абзац - предложения с вычислением выражений,
+ * предложение - лексемы. Для стадий задается число рабочих потоков, поэтому вычисление
+ * выражений в одних абзацах идет одновременно с разбором лексем в других.
+ * Результаты записываются в ячейки по индексам, порядок абзацев и предложений сохраняется.
+ * Потоки стадий берутся из переданного исполнителя (по умолчанию - общий исполнитель
+ * с виртуальными потоками); исполнитель должен запускать все задачи стадий одновременно.
+ */
+public class PipelinedTextParser extends TextParser {
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ExecutorService executor;
+    private final int paragraphWorkers;
+    private final int sentenceWorkers;
+    private final int queueCapacity;
+    private final ParagraphLevelParser paragraphParser;
+    private final TextParser sentenceParser = new SentenceLevelParser();
+
+    /**
+     * По одному потоку на стадию абзацев и стадию предложений
+     */
+    public PipelinedTextParser() {
+        this(1, 1, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param paragraphWorkers количество потоков стадии абзац - предложения
+     * @param sentenceWorkers количество потоков стадии предложение - лексемы
+     * @param queueCapacity емкость каждой очереди между стадиями
+     */
+    public PipelinedTextParser(int paragraphWorkers, int sentenceWorkers, int queueCapacity) {
+        this(SHARED_EXECUTOR, paragraphWorkers, sentenceWorkers, queueCapacity);
+    }
+
+    /**
+     * @param executor исполнитель задач стадий; не завершается парсером
+     */
+    public PipelinedTextParser(ExecutorService executor, int paragraphWorkers, int sentenceWorkers,
+                               int queueCapacity) {
+        this(executor, new ParagraphLevelParser(), paragraphWorkers, sentenceWorkers, queueCapacity);
+    }
+
+    PipelinedTextParser(ExecutorService executor, ParagraphLevelParser paragraphParser,
+                        int paragraphWorkers, int sentenceWorkers, int queueCapacity) {
+        if (paragraphWorkers < 1 || sentenceWorkers < 1) {
+            throw new IllegalArgumentException("Worker counts must be positive: "
+                    + paragraphWorkers + ", " + sentenceWorkers);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.executor = executor;
+        this.paragraphParser = paragraphParser;
+        this.paragraphWorkers = paragraphWorkers;
+        this.sentenceWorkers = sentenceWorkers;
+        this.queueCapacity = queueCapacity;
+        sentenceParser.setNext(new LexemeLevelParser());
+    }
+
+    @Override
+    public TextComponent parse(String text) {
+        List<String> paragraphs = TextLevelParser.splitParagraphs(text);
+        TextComponent[][] sentenceSlots = new TextComponent[paragraphs.size()][];
+
+        BlockingQueue<ParagraphTask> paragraphQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<SentenceTask> sentenceQueue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger activeParagraphWorkers = new AtomicInteger(paragraphWorkers);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < paragraphWorkers; i++) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        runParagraphStage(paragraphQueue, sentenceQueue, sentenceSlots, failure);
+                    } finally {
+                        // Последний поток стадии абзацев завершает стадию предложений, даже после ошибки
+                        if (activeParagraphWorkers.decrementAndGet() == 0) {
+                            for (int j = 0; j < sentenceWorkers; j++) {
+                                sentenceQueue.put(SentenceTask.END);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < sentenceWorkers; i++) {
+                workers.add(executor.submit(() -> {
+                    runSentenceStage(sentenceQueue, failure);
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < paragraphs.size(); i++) {
+                paragraphQueue.put(new ParagraphTask(i, paragraphs.get(i)));
+            }
+            for (int i = 0; i < paragraphWorkers; i++) {
+                paragraphQueue.put(ParagraphTask.END);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pipeline stage failed", e.getCause());
+        } finally {
+            // При прерывании или ошибке оставшиеся задачи стадий не должны ждать очередей вечно
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return assemble(sentenceSlots);
+    }
+
+    private void runParagraphStage(BlockingQueue<ParagraphTask> paragraphQueue,
+                                   BlockingQueue<SentenceTask> sentenceQueue,
+                                   TextComponent[][] sentenceSlots,
+                                   AtomicReference<Throwable> failure) throws InterruptedException {
+        ParagraphTask task;
+        while ((task = paragraphQueue.take()) != ParagraphTask.END) {
+            if (failure.get() != null) {
+                // После ошибки очередь только вычерпывается, чтобы не блокировать другие стадии
+                continue;
+            }
+            List<String> sentences;
+            try {
+                sentences = paragraphParser.splitSentences(task.text);
+            } catch (RuntimeException | Error e) {
+                // Error (например, переполнение стека в регулярном выражении) тоже не должен
+                // останавливать поток: иначе стадия предложений не получит END
+                failure.compareAndSet(null, e);
+                continue;
+            }
+            TextComponent[] slots = new TextComponent[sentences.size()];
+            sentenceSlots[task.index] = slots;
+            for (int i = 0; i < slots.length; i++) {
+                sentenceQueue.put(new SentenceTask(slots, i, sentences.get(i)));
+            }
+        }
+    }
+
+    private void runSentenceStage(BlockingQueue<SentenceTask> sentenceQueue,
+                                  AtomicReference<Throwable> failure) throws InterruptedException {
+        SentenceTask task;
+        while ((task = sentenceQueue.take()) != SentenceTask.END) {
+            if (failure.get() != null) {
+                continue;
+            }
+            try {
+                task.slots[task.index] = sentenceParser.parse(task.text);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private static TextComponent assemble(TextComponent[][] sentenceSlots) {
+        TextComponent textComponent = new TextComposite(TextComponentType.TEXT);
+        for (TextComponent[] sentences : sentenceSlots) {
+            TextComponent paragraphComponent = new TextComposite(TextComponentType.PARAGRAPH);
+            for (TextComponent sentence : sentences) {
+                paragraphComponent.add(sentence);
+            }
+            textComponent.add(paragraphComponent);
+        }
+        return textComponent;
+    }
+
+    /**
+     * Абзац для стадии предложений
+     */
+    private static class ParagraphTask {
+        static final ParagraphTask END = new ParagraphTask(-1, null);
+
+        final int index;
+        final String text;
+
+        ParagraphTask(int index, String text) {
+            this.index = index;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Предложение для стадии лексем и ячейка для результата
+     */
+    private static class SentenceTask {
+        static final SentenceTask END = new SentenceTask(null, -1, null);
+
+        final TextComponent[] slots;
+        final int index;
+        final String text;
+
+        SentenceTask(TextComponent[] slots, int index, String text) {
+            this.slots = slots;
+            this.index = index;
+            this.text = text;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.texthandler.parser;
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
 import com.texthandler.composite.TextComposite;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
 import com.texthandler.util.RegexConstants;
 
 import java.util.regex.Matcher;
@@ -12,24 +14,53 @@ import java.util.regex.Pattern;
  * Парсер уровня предложения - разбивает на лексемы
  */
 public class SentenceLevelParser extends TextParser {
+    private static final Pattern LEXEME_PATTERN = Pattern.compile(RegexConstants.LEXEME_SEPARATOR);
+    private static final Histogram PARSE_TIME = MetricsRegistry.global().histogram("parser.sentence.nanos");
 
     @Override
     public TextComponent parse(String text) {
+        long start = System.nanoTime();
         TextComponent sentenceComponent = new TextComposite(TextComponentType.SENTENCE);
         
-        Pattern lexemePattern = Pattern.compile(RegexConstants.LEXEME_SEPARATOR);
-        Matcher matcher = lexemePattern.matcher(text);
+        Matcher matcher = LEXEME_PATTERN.matcher(text);
         
         while (matcher.find()) {
             String lexeme = matcher.group().trim();
             if (!lexeme.isEmpty()) {
-                TextComponent lexemeComponent = 
-                    nextParser != null ? nextParser.parse(lexeme) 
-                                       : new TextComposite(TextComponentType.LEXEME);
+                TextComponent lexemeComponent;
+                if (nextParser != null) {
+                    lexemeComponent = nextParser.parse(lexeme);
+                } else {
+                    // Последний уровень цепочки: лексема хранит текст, который восстановила бы
+                    // полностью разобранная лексема
+                    lexemeComponent = new TextComposite(TextComponentType.LEXEME);
+                    StringBuilder restored = new StringBuilder(lexeme.length());
+                    LexemeLevelParser.appendRestored(lexeme, restored);
+                    lexemeComponent.setContent(restored.toString());
+                }
                 sentenceComponent.add(lexemeComponent);
             }
         }
         
+        PARSE_TIME.recordSince(start);
         return sentenceComponent;
     }
-}
\ No newline at end of file
+
+    /**
+     * Текст, который восстановит предложение после разбора до слов и знаков препинания:
+     * лексемы через пробел, каждая в виде {@link LexemeLevelParser#appendRestored}
+     */
+    static String restoredText(String text) {
+        StringBuilder restored = new StringBuilder(text.length());
+        Matcher matcher = LEXEME_PATTERN.matcher(text);
+        boolean first = true;
+        while (matcher.find()) {
+            if (!first) {
+                restored.append(' ');
+            }
+            LexemeLevelParser.appendRestored(matcher.group(), restored);
+            first = false;
+        }
+        return restored.toString();
+    }
+}
@@ -0,0 +1,253 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.CompositeTreeBuilder;
+import com.texthandler.composite.LeafFactory;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.composite.TextComposite;
+import com.texthandler.composite.TextTreeBuilder;
+import com.texthandler.interpreter.ArithmeticExpressionProcessor;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Однопроходный парсер на основе конечного автомата по классам символов.
+ * Строит то же дерево, что и цепочка TextLevelParser → ParagraphLevelParser →
+ * SentenceLevelParser → LexemeLevelParser, но без регулярных выражений:
+ * каждый абзац после вычисления выражений просматривается один раз,
+ * а предложения, лексемы, слова и знаки препинания сразу передаются построителю документа
+ * ({@link TextTreeBuilder}): дереву TextComposite, колоночному документу и т.д.
+ * Следующий парсер цепочки не используется.
+ * Листья создаются фабрикой: с {@link LeafFactory#spans()} они ссылаются на исходный текст
+ * (или на текст абзаца после вычисления выражений) без копирования строк.
+ */
+public class SinglePassTextParser extends TextParser {
+    private static final Histogram PARAGRAPH_TIME = MetricsRegistry.global().histogram("parser.single-pass.paragraph.nanos");
+
+    private final ArithmeticExpressionProcessor expressionProcessor;
+    private final LeafFactory leafFactory;
+
+    public SinglePassTextParser() {
+        this(LeafFactory.copying());
+    }
+
+    public SinglePassTextParser(LeafFactory leafFactory) {
+        this.expressionProcessor = new ArithmeticExpressionProcessor();
+        this.leafFactory = leafFactory;
+    }
+
+    @Override
+    public TextComponent parse(String text) {
+        return parse(text, new CompositeTreeBuilder(leafFactory));
+    }
+
+    /**
+     * Разбирает текст, передавая события разбора построителю
+     * @return документ, построенный построителем
+     */
+    public <T> T parse(String text, TextTreeBuilder<T> builder) {
+        builder.startComposite(TextComponentType.TEXT);
+        ParagraphScanner.forEachParagraph(text, 0, text.length(),
+                (start, end) -> parseParagraph(text, start, end, builder));
+        builder.endComposite();
+        return builder.build();
+    }
+
+    @Override
+    public TextComponent parse(Reader reader) throws IOException {
+        TextComponent textComponent = new TextComposite(TextComponentType.TEXT);
+        parse(reader, textComponent::add);
+        return textComponent;
+    }
+
+    /**
+     * Потоковый разбор: каждый абзац передается обработчику сразу после разбора
+     */
+    public void parse(Reader reader, Consumer<TextComponent> paragraphConsumer) throws IOException {
+        ParagraphReader paragraphReader = new ParagraphReader(reader);
+        String paragraph;
+        while ((paragraph = paragraphReader.nextParagraph()) != null) {
+            CompositeTreeBuilder builder = new CompositeTreeBuilder(leafFactory);
+            parseParagraph(paragraph, 0, paragraph.length(), builder);
+            paragraphConsumer.accept(builder.build());
+        }
+    }
+
+    /**
+     * Разбирает абзац [start, end) документа (без пробелов по краям) до уровня слов и знаков препинания
+     */
+    private void parseParagraph(String document, int start, int end, TextTreeBuilder<?> builder) {
+        long startNanos = System.nanoTime();
+        CharSequence text = document;
+        int i = start;
+        int limit = end;
+
+        // Без цифр выражений в абзаце быть не может - текст документа используется как есть
+        if (containsDigit(document, start, end)) {
+            String paragraph = document.substring(start, end);
+            String processed = expressionProcessor.processExpressions(paragraph);
+            if (!processed.equals(paragraph)) {
+                text = processed;
+                i = 0;
+                limit = processed.length();
+            }
+        }
+        int paragraphStart = i;
+
+        builder.startComposite(TextComponentType.PARAGRAPH);
+        boolean sentenceOpen = false;
+
+        while (i < limit) {
+            if (ParagraphScanner.isWhitespace(text.charAt(i))) {
+                int runStart = i;
+                while (i < limit && ParagraphScanner.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                // Граница предложения: [.!?…] + пробелы + заглавная буква
+                if (sentenceOpen && runStart > paragraphStart && i < limit
+                        && isSentenceEnd(text.charAt(runStart - 1))
+                        && isSentenceStart(text.charAt(i))) {
+                    builder.endComposite();
+                    sentenceOpen = false;
+                }
+                continue;
+            }
+
+            int tokenStart = i;
+            while (i < limit && !ParagraphScanner.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int tokenEnd = i;
+            // trim() лексемы отбрасывает управляющие символы по краям
+            while (tokenStart < tokenEnd && text.charAt(tokenStart) <= ' ') {
+                tokenStart++;
+            }
+            while (tokenEnd > tokenStart && text.charAt(tokenEnd - 1) <= ' ') {
+                tokenEnd--;
+            }
+            if (tokenStart < tokenEnd) {
+                if (!sentenceOpen) {
+                    builder.startComposite(TextComponentType.SENTENCE);
+                    sentenceOpen = true;
+                }
+                parseLexeme(text, tokenStart, tokenEnd, builder);
+            }
+        }
+
+        if (sentenceOpen) {
+            builder.endComposite();
+        }
+        builder.endComposite();
+        PARAGRAPH_TIME.recordSince(startNanos);
+    }
+
+    /**
+     * Разбирает лексему [start, end) на слова ({@code \d+\.\d+|\b\w+\b}) и знаки препинания
+     */
+    private void parseLexeme(CharSequence text, int start, int end, TextTreeBuilder<?> builder) {
+        builder.startComposite(TextComponentType.LEXEME);
+
+        int gapStart = start;
+        int i = start;
+        while (i < end) {
+            int wordEnd = matchWord(text, i, start, end);
+            if (wordEnd < 0) {
+                i++;
+                continue;
+            }
+            addPunctuation(text, gapStart, i, builder);
+            builder.addLeaf(TextComponentType.WORD, text, i, wordEnd);
+            i = wordEnd;
+            gapStart = wordEnd;
+        }
+        addPunctuation(text, gapStart, end, builder);
+
+        builder.endComposite();
+    }
+
+    /**
+     * @return конец слова, начинающегося в позиции pos, или -1
+     */
+    private int matchWord(CharSequence text, int pos, int start, int end) {
+        char c = text.charAt(pos);
+
+        if (isDigit(c)) {
+            int i = pos;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i + 1 < end && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+                i += 2;
+                while (i < end && isDigit(text.charAt(i))) {
+                    i++;
+                }
+                return i;
+            }
+        }
+
+        if (isWordChar(c) && (pos == start || !isWordChar(text.charAt(pos - 1)))) {
+            int i = pos + 1;
+            while (i < end && isWordChar(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Добавляет непрерывные серии знаков препинания из промежутка между словами
+     */
+    private void addPunctuation(CharSequence text, int start, int end, TextTreeBuilder<?> builder) {
+        int i = start;
+        while (i < end) {
+            if (!isPunctuation(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runStart = i;
+            while (i < end && isPunctuation(text.charAt(i))) {
+                i++;
+            }
+            builder.addLeaf(TextComponentType.PUNCTUATION, text, runStart, i);
+        }
+    }
+
+    private static boolean containsDigit(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    /**
+     * Символ класса {@code \p{Punct}} (ASCII)
+     */
+    private static boolean isPunctuation(char c) {
+        return (c >= '!' && c <= '/') || (c >= ':' && c <= '@')
+                || (c >= '[' && c <= '`') || (c >= '{' && c <= '~');
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?' || c == '…';
+    }
+
+    private static boolean isSentenceStart(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'А' && c <= 'Я');
+    }
+}
@@ -1,31 +1,168 @@
-
 package com.texthandler.parser;
 
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
 import com.texthandler.composite.TextComposite;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
 import com.texthandler.util.RegexConstants;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
 /**
- * Парсер уровня документа - разбивает на абзацы
+ * Парсер уровня документа - разбивает на абзацы.
+ * В параллельном режиме абзацы разбираются следующим парсером цепочки в ForkJoinPool,
+ * порядок абзацев в результате сохраняется.
+ * Из потока символов абзацы читаются порциями и разбираются по мере чтения.
  */
 public class TextLevelParser extends TextParser {
+    private static final Pattern PARAGRAPH_PATTERN = Pattern.compile(RegexConstants.PARAGRAPH_SEPARATOR);
+    private static final Histogram PARSE_TIME = MetricsRegistry.global().histogram("parser.text.nanos");
+
+    /**
+     * Размер текста (в символах), ниже которого разбор выполняется последовательно
+     */
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 16 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+
+    /**
+     * Последовательный парсер
+     */
+    public TextLevelParser() {
+        this(null, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * Пул не закрывается парсером: его жизненным циклом управляет вызывающий код
+     * @param pool пул для параллельного разбора абзацев (null - последовательный режим)
+     * @param sequentialThreshold размер текста или группы абзацев в символах,
+     *                            ниже которого разбор выполняется в текущем потоке
+     */
+    public TextLevelParser(ForkJoinPool pool, int sequentialThreshold) {
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("Sequential threshold must be positive: " + sequentialThreshold);
+        }
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
+    }
 
     @Override
     public TextComponent parse(String text) {
+        long start = System.nanoTime();
         TextComponent textComponent = new TextComposite(TextComponentType.TEXT);
-        
-        String[] paragraphs = text.split(RegexConstants.PARAGRAPH_SEPARATOR);
-        
+
+        for (TextComponent paragraphComponent : parseParagraphs(splitParagraphs(text), text.length())) {
+            textComponent.add(paragraphComponent);
+        }
+
+        PARSE_TIME.recordSince(start);
+        return textComponent;
+    }
+
+    /**
+     * Делит текст на непустые абзацы без пробелов по краям
+     */
+    static List<String> splitParagraphs(String text) {
+        String[] paragraphs = PARAGRAPH_PATTERN.split(text);
+        List<String> trimmedParagraphs = new ArrayList<>(paragraphs.length);
+
         for (String paragraph : paragraphs) {
             if (!paragraph.trim().isEmpty()) {
-                TextComponent paragraphComponent = 
-                    nextParser != null ? nextParser.parse(paragraph.trim()) 
-                                       : new TextComposite(TextComponentType.PARAGRAPH);
-                textComponent.add(paragraphComponent);
+                trimmedParagraphs.add(paragraph.trim());
             }
         }
-        
+        return trimmedParagraphs;
+    }
+
+    @Override
+    public TextComponent parse(Reader reader) throws IOException {
+        TextComponent textComponent = new TextComposite(TextComponentType.TEXT);
+        parse(reader, textComponent::add);
         return textComponent;
     }
-}
\ No newline at end of file
+
+    /**
+     * Потоковый разбор: каждый абзац передается обработчику сразу после разбора,
+     * не дожидаясь конца потока
+     * @param reader источник текста
+     * @param paragraphConsumer получатель разобранных абзацев в порядке следования
+     */
+    public void parse(Reader reader, Consumer<TextComponent> paragraphConsumer) throws IOException {
+        ParagraphReader paragraphReader = new ParagraphReader(reader);
+        String paragraph;
+        while ((paragraph = paragraphReader.nextParagraph()) != null) {
+            paragraphConsumer.accept(parseParagraph(paragraph));
+        }
+    }
+
+    private TextComponent[] parseParagraphs(List<String> paragraphs, int textLength) {
+        TextComponent[] results = new TextComponent[paragraphs.size()];
+
+        if (pool == null || nextParser == null || paragraphs.size() < 2 || textLength < sequentialThreshold) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = parseParagraph(paragraphs.get(i));
+            }
+            return results;
+        }
+
+        // Префиксные суммы длин для оценки размера подзадач
+        int[] offsets = new int[paragraphs.size() + 1];
+        for (int i = 0; i < paragraphs.size(); i++) {
+            offsets[i + 1] = offsets[i] + paragraphs.get(i).length();
+        }
+        pool.invoke(new ParagraphParseTask(paragraphs, offsets, results, 0, results.length));
+        return results;
+    }
+
+    private TextComponent parseParagraph(String paragraph) {
+        if (nextParser != null) {
+            return nextParser.parse(paragraph);
+        }
+        // Последний уровень цепочки: абзац хранит свой текст
+        TextComponent paragraphComponent = new TextComposite(TextComponentType.PARAGRAPH);
+        paragraphComponent.setContent(paragraph);
+        return paragraphComponent;
+    }
+
+    /**
+     * Подзадача разбора диапазона абзацев [from, to); задачи не сериализуются
+     */
+    @SuppressWarnings("serial")
+    private class ParagraphParseTask extends RecursiveAction {
+        private final List<String> paragraphs;
+        private final int[] offsets;
+        private final TextComponent[] results;
+        private final int from;
+        private final int to;
+
+        ParagraphParseTask(List<String> paragraphs, int[] offsets, TextComponent[] results, int from, int to) {
+            this.paragraphs = paragraphs;
+            this.offsets = offsets;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1 || offsets[to] - offsets[from] <= sequentialThreshold) {
+                for (int i = from; i < to; i++) {
+                    results[i] = parseParagraph(paragraphs.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParagraphParseTask(paragraphs, offsets, results, from, middle),
+                      new ParagraphParseTask(paragraphs, offsets, results, middle, to));
+        }
+    }
+}
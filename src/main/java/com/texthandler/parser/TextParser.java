@@ -2,6 +2,13 @@ package com.texthandler.parser;
 
 import com.texthandler.composite.TextComponent;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * Базовый интерфейс для парсеров текста
  */
@@ -13,4 +20,32 @@ public abstract class TextParser {
     }
 
     public abstract TextComponent parse(String text);
+
+    /**
+     * Описание парсера и следующих звеньев цепочки; одинаковые описания означают одинаковый
+     * результат разбора. Используется для проверки сохраненных результатов разбора.
+     */
+    public String getSignature() {
+        String signature = getClass().getName();
+        return nextParser == null ? signature : signature + " > " + nextParser.getSignature();
+    }
+
+    /**
+     * Разбирает текст из потока символов. По умолчанию поток читается целиком,
+     * парсеры уровня документа переопределяют метод для потокового разбора.
+     */
+    public TextComponent parse(Reader reader) throws IOException {
+        StringWriter writer = new StringWriter();
+        reader.transferTo(writer);
+        return parse(writer.toString());
+    }
+
+    /**
+     * Разбирает текстовый файл в кодировке UTF-8
+     */
+    public TextComponent parse(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
 }
\ No newline at end of file
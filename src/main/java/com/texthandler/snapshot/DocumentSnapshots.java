@@ -0,0 +1,103 @@
+package com.texthandler.snapshot;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.parser.TextParser;
+import com.texthandler.util.RegexConstants;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Снимки документов в каталоге кэша: при повторном запуске документ открывается из снимка,
+ * если снимок не старше исходного файла и записан тем же парсером, иначе файл разбирается
+ * и снимок перезаписывается.
+ */
+public final class DocumentSnapshots {
+    private static final Logger logger = LogManager.getLogger(DocumentSnapshots.class);
+    public static final String EXTENSION = ".snapshot";
+    public static final Path DEFAULT_DIRECTORY = Paths.get("target", "snapshots");
+
+    private DocumentSnapshots() {
+        // Утилитарный класс
+    }
+
+    /**
+     * @return путь снимка исходного файла в каталоге кэша (input.txt → input.txt-1a2b3c4d.snapshot);
+     * хэш полного пути различает одноименные файлы из разных каталогов
+     */
+    public static Path snapshotPath(Path source, Path directory) {
+        String location = source.toAbsolutePath().normalize().toString();
+        return directory.resolve(source.getFileName() + "-" + Integer.toHexString(location.hashCode()) + EXTENSION);
+    }
+
+    /**
+     * Отпечаток парсера: описание цепочки, регулярные выражения разбора, типы компонентов и версия формата.
+     * Снимок с другим отпечатком мог быть получен другим разбором и не используется.
+     */
+    public static long fingerprint(TextParser parser) {
+        String description = String.join("\n", parser.getSignature(),
+                RegexConstants.PARAGRAPH_SEPARATOR, RegexConstants.SENTENCE_SEPARATOR,
+                RegexConstants.LEXEME_SEPARATOR, RegexConstants.WORD_PATTERN, RegexConstants.PUNCTUATION_PATTERN,
+                Arrays.toString(TextComponentType.values()), String.valueOf(SnapshotFormat.VERSION));
+        // FNV-1a, 64 бита
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : description.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        return hash == SnapshotFormat.NO_FINGERPRINT ? 1 : hash;
+    }
+
+    /**
+     * Открывает актуальный снимок из {@link #DEFAULT_DIRECTORY} или разбирает файл и сохраняет снимок туда
+     */
+    public static TextComponent loadOrParse(Path source, TextParser parser) throws IOException {
+        return loadOrParse(source, parser, DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Открывает актуальный снимок из каталога кэша или разбирает файл парсером и сохраняет снимок.
+     * Ошибки чтения и записи снимка не прерывают работу: документ всегда можно получить разбором.
+     */
+    public static TextComponent loadOrParse(Path source, TextParser parser, Path directory) throws IOException {
+        Path snapshot = snapshotPath(source, directory);
+        long fingerprint = fingerprint(parser);
+        if (isFresh(snapshot, source)) {
+            try {
+                TextComponent document = SnapshotReader.open(snapshot, fingerprint);
+                logger.debug("Loaded snapshot {}", snapshot);
+                return document;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Unusable snapshot {}, parsing {}: {}", snapshot, source, e.getMessage());
+            }
+        }
+
+        TextComponent document = parser.parse(source);
+        try {
+            // Снимок записывается во временный файл и подменяется целиком
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+            try {
+                SnapshotWriter.write(document, temporary, fingerprint);
+                Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write snapshot {}", snapshot, e);
+        }
+        return document;
+    }
+
+    private static boolean isFresh(Path snapshot, Path source) throws IOException {
+        return Files.isRegularFile(snapshot)
+                && Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(source)) >= 0;
+    }
+}
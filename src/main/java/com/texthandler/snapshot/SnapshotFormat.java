@@ -0,0 +1,55 @@
+package com.texthandler.snapshot;
+
+import com.texthandler.composite.TextComponentType;
+
+/**
+ * Двоичный формат снимка разобранного документа.
+ * <pre>
+ * заголовок:   int MAGIC, byte VERSION, long отпечаток парсера
+ * словарь:     varint количество строк, для каждой varint длина в байтах UTF-8 и байты
+ * корень:      byte тег, varint количество дочерних элементов N,
+ *              int[N + 1] смещения блоков дочерних элементов от начала первого блока
+ * блоки:       узлы дочерних элементов корня в прямом порядке
+ * узел:        byte тег; без дочерних элементов - varint ссылка на содержимое,
+ *              иначе varint количество дочерних элементов и сами дочерние узлы
+ * </pre>
+ * Тег - номер типа компонента, старший бит означает узел без дочерних элементов.
+ * Ссылка на содержимое - номер строки словаря плюс один, 0 означает отсутствие содержимого.
+ * Таблица смещений позволяет разбирать абзацы по отдельности, не читая весь файл.
+ * Отпечаток описывает парсер, которым получен документ; {@link #NO_FINGERPRINT} - парсер не указан.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x54485331; // "THS1"
+    static final byte VERSION = 2;
+    static final int HEADER_SIZE = Integer.BYTES + 1 + Long.BYTES;
+    static final long NO_FINGERPRINT = 0;
+    static final int CHILDLESS = 0x80;
+    static final int NO_CONTENT = 0;
+
+    private SnapshotFormat() {
+        // Утилитарный класс
+    }
+
+    static int tag(TextComponentType type, boolean childless) {
+        return type.ordinal() | (childless ? CHILDLESS : 0);
+    }
+
+    static TextComponentType type(int tag) {
+        int ordinal = tag & ~CHILDLESS;
+        TextComponentType[] types = TextComponentType.values();
+        if (ordinal >= types.length) {
+            throw new IllegalStateException("Unknown component type in snapshot: " + ordinal);
+        }
+        return types[ordinal];
+    }
+
+    static boolean isChildless(int tag) {
+        return (tag & CHILDLESS) != 0;
+    }
+
+    static boolean isLeafType(TextComponentType type) {
+        return type == TextComponentType.WORD
+                || type == TextComponentType.PUNCTUATION
+                || type == TextComponentType.SYMBOL;
+    }
+}
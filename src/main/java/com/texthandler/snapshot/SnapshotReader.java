@@ -0,0 +1,237 @@
+package com.texthandler.snapshot;
+
+import com.texthandler.composite.LazyTextComposite;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.composite.TextComposite;
+import com.texthandler.composite.TextLeaf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Чтение двоичного снимка документа (см. {@link SnapshotFormat}).
+ * {@link #read(Path)} восстанавливает все дерево сразу, {@link #open(Path)} отображает файл в память
+ * и разбирает дочерние элементы корня при первом обращении к ним ({@link LazyTextComposite}).
+ * Строки словаря общие для всех листьев с одинаковым содержимым.
+ */
+public class SnapshotReader {
+    private final ByteBuffer buffer;
+    private final String[] dictionary;
+    private final int documentStart;
+
+    private SnapshotReader(ByteBuffer buffer, long fingerprint) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < SnapshotFormat.HEADER_SIZE || buffer.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a document snapshot");
+        }
+        if (buffer.get(Integer.BYTES) != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported snapshot version: " + buffer.get(Integer.BYTES));
+        }
+        long actual = buffer.getLong(Integer.BYTES + 1);
+        if (fingerprint != SnapshotFormat.NO_FINGERPRINT && actual != fingerprint) {
+            throw new IOException("Snapshot was written by another parser: fingerprint "
+                    + Long.toHexString(actual) + ", expected " + Long.toHexString(fingerprint));
+        }
+        try {
+            Cursor cursor = new Cursor(SnapshotFormat.HEADER_SIZE, buffer.limit());
+            int size = cursor.readVarint();
+            // Каждая строка занимает хотя бы байт длины
+            if (size > cursor.remaining()) {
+                throw new IllegalStateException("Dictionary size " + size + " exceeds snapshot size");
+            }
+            this.dictionary = new String[size];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = cursor.readString();
+            }
+            this.documentStart = cursor.offset;
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Читает снимок целиком
+     */
+    public static TextComponent read(Path path) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * Читает снимок из буфера целиком
+     */
+    public static TextComponent read(ByteBuffer buffer) throws IOException {
+        return new SnapshotReader(buffer, SnapshotFormat.NO_FINGERPRINT).readDocument(false);
+    }
+
+    /**
+     * Отображает снимок в память; словарь и таблица смещений проверяются сразу, дочерние элементы корня
+     * разбираются при первом обращении (поврежденный блок абзаца - {@link IllegalStateException}).
+     * Файл можно изменять или удалять, только когда документ больше не используется.
+     */
+    public static TextComponent open(Path path) throws IOException {
+        return open(path, SnapshotFormat.NO_FINGERPRINT);
+    }
+
+    /**
+     * Отображает снимок в память, если он записан с тем же отпечатком парсера, иначе бросает {@link IOException}
+     */
+    public static TextComponent open(Path path, long fingerprint) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to be mapped: " + path + " (" + size + " bytes)");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return new SnapshotReader(buffer, fingerprint).readDocument(true);
+    }
+
+    private TextComponent readDocument(boolean lazy) throws IOException {
+        try {
+            Cursor cursor = new Cursor(documentStart, buffer.limit());
+            int tag = cursor.readByte();
+            TextComponentType type = SnapshotFormat.type(tag);
+            if (SnapshotFormat.isChildless(tag)) {
+                return createChildless(type, cursor.readVarint());
+            }
+
+            int childCount = cursor.readVarint();
+            int offsetsStart = cursor.offset;
+            // Таблица смещений и блоки (не меньше двух байт каждый) должны поместиться в файл
+            if ((childCount + 1L) * Integer.BYTES + childCount * 2L > cursor.remaining()) {
+                throw new IllegalStateException("Child count " + childCount + " exceeds snapshot size");
+            }
+            int blocksStart = offsetsStart + (childCount + 1) * Integer.BYTES;
+            int[] blockStarts = new int[childCount + 1];
+            for (int i = 0; i <= childCount; i++) {
+                int offset = buffer.getInt(offsetsStart + i * Integer.BYTES);
+                if (i == 0 ? offset != 0 : offset <= blockStarts[i - 1] - blocksStart
+                        || offset > buffer.limit() - blocksStart) {
+                    throw new IllegalStateException("Invalid block offset " + offset + " of child " + i);
+                }
+                blockStarts[i] = blocksStart + offset;
+            }
+            if (blockStarts[childCount] != buffer.limit()) {
+                throw new IllegalStateException("Blocks end at " + blockStarts[childCount]
+                        + ", snapshot size is " + buffer.limit());
+            }
+
+            TextComponent document = new TextComposite(type);
+            for (int i = 0; i < childCount; i++) {
+                int blockStart = blockStarts[i];
+                int blockEnd = blockStarts[i + 1];
+                int childTag = buffer.get(blockStart) & 0xFF;
+                TextComponentType childType = SnapshotFormat.type(childTag);
+                if (lazy && !SnapshotFormat.isChildless(childTag)) {
+                    document.add(new LazyTextComposite(childType, () -> readNodeAt(blockStart, blockEnd)));
+                } else {
+                    document.add(readNodeAt(blockStart, blockEnd));
+                }
+            }
+            return document;
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupt snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Разбирает узел, занимающий ровно блок [start, end); вызывается и из других потоков
+     */
+    private TextComponent readNodeAt(int start, int end) {
+        Cursor cursor = new Cursor(start, end);
+        TextComponent node = cursor.readNode(1);
+        if (cursor.offset != end) {
+            throw new IllegalStateException("Block at " + start + " has " + (end - cursor.offset) + " extra bytes");
+        }
+        return node;
+    }
+
+    private TextComponent createChildless(TextComponentType type, int contentRef) {
+        if (contentRef > dictionary.length) {
+            throw new IllegalStateException("Unknown dictionary string " + contentRef);
+        }
+        String content = contentRef == SnapshotFormat.NO_CONTENT ? null : dictionary[contentRef - 1];
+        if (SnapshotFormat.isLeafType(type)) {
+            return new TextLeaf(type, content);
+        }
+        TextComponent composite = new TextComposite(type);
+        composite.setContent(content);
+        return composite;
+    }
+
+    /**
+     * Позиция чтения в пределах [offset, limit); буфер читается только по абсолютным смещениям,
+     * поэтому несколько курсоров могут читать его одновременно. Выход за пределы - {@link IllegalStateException}.
+     */
+    private class Cursor {
+        private int offset;
+        private final int limit;
+
+        Cursor(int offset, int limit) {
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        int remaining() {
+            return limit - offset;
+        }
+
+        TextComponent readNode(int depth) {
+            // Вложенность узлов не может быть глубже числа уровней разбора
+            if (depth >= TextComponentType.values().length) {
+                throw new IllegalStateException("Nodes are nested too deep at " + offset);
+            }
+            int tag = readByte();
+            TextComponentType type = SnapshotFormat.type(tag);
+            if (SnapshotFormat.isChildless(tag)) {
+                return createChildless(type, readVarint());
+            }
+            int childCount = readVarint();
+            TextComponent composite = new TextComposite(type);
+            for (int i = 0; i < childCount; i++) {
+                composite.add(readNode(depth + 1));
+            }
+            return composite;
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length > remaining()) {
+                throw new IllegalStateException("String of " + length + " bytes exceeds snapshot size");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            offset += bytes.length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int readByte() {
+            if (offset >= limit) {
+                throw new IllegalStateException("Unexpected end of data at " + offset);
+            }
+            return buffer.get(offset++) & 0xFF;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed number at " + offset);
+        }
+    }
+}
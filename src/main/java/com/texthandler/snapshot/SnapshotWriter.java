@@ -0,0 +1,131 @@
+package com.texthandler.snapshot;
+
+import com.texthandler.composite.TextComponent;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Запись документа в двоичный снимок (см. {@link SnapshotFormat}).
+ * Строки листьев записываются в словарь один раз, узлы ссылаются на них по номеру.
+ */
+public class SnapshotWriter {
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private final ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * Записывает снимок документа в файл
+     */
+    public static void write(TextComponent document, Path path) throws IOException {
+        write(document, path, SnapshotFormat.NO_FINGERPRINT);
+    }
+
+    /**
+     * Записывает снимок документа в файл вместе с отпечатком парсера
+     */
+    public static void write(TextComponent document, Path path, long fingerprint) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(document, out, fingerprint);
+        }
+    }
+
+    /**
+     * Записывает снимок документа в поток; поток не закрывается
+     */
+    public static void write(TextComponent document, OutputStream out) throws IOException {
+        write(document, out, SnapshotFormat.NO_FINGERPRINT);
+    }
+
+    /**
+     * Записывает снимок документа с отпечатком парсера в поток; поток не закрывается
+     */
+    public static void write(TextComponent document, OutputStream out, long fingerprint) throws IOException {
+        new SnapshotWriter().writeDocument(document, out, fingerprint);
+    }
+
+    private void writeDocument(TextComponent document, OutputStream out, long fingerprint) throws IOException {
+        int childCount = document.getChildCount();
+        int rootContent = childCount == 0 ? contentRef(document.getContent()) : SnapshotFormat.NO_CONTENT;
+        int[] offsets = new int[childCount + 1];
+        for (int i = 0; i < childCount; i++) {
+            offsets[i] = blocks.size();
+            writeNode(document.getChild(i), blocks);
+        }
+        offsets[childCount] = blocks.size();
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(SnapshotFormat.MAGIC);
+        data.writeByte(SnapshotFormat.VERSION);
+        data.writeLong(fingerprint);
+        writeVarint(dictionaryIds.size(), data);
+        dictionary.writeTo(data);
+
+        data.writeByte(SnapshotFormat.tag(document.getType(), childCount == 0));
+        if (childCount == 0) {
+            writeVarint(rootContent, data);
+        } else {
+            writeVarint(childCount, data);
+            for (int offset : offsets) {
+                data.writeInt(offset);
+            }
+            blocks.writeTo(data);
+        }
+        data.flush();
+    }
+
+    private void writeNode(TextComponent component, ByteArrayOutputStream out) {
+        int childCount = component.getChildCount();
+        out.write(SnapshotFormat.tag(component.getType(), childCount == 0));
+        if (childCount == 0) {
+            writeVarint(contentRef(component.getContent()), out);
+            return;
+        }
+        writeVarint(childCount, out);
+        for (int i = 0; i < childCount; i++) {
+            writeNode(component.getChild(i), out);
+        }
+    }
+
+    private int contentRef(String content) {
+        if (content == null) {
+            return SnapshotFormat.NO_CONTENT;
+        }
+        Integer id = dictionaryIds.get(content);
+        if (id == null) {
+            id = dictionaryIds.size();
+            dictionaryIds.put(content, id);
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length, dictionary);
+            dictionary.writeBytes(bytes);
+        }
+        return id + 1;
+    }
+
+    private static void writeVarint(int value, ByteArrayOutputStream out) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeVarint(int value, DataOutputStream out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,32 @@
+package com.texthandler.util;
+
+/**
+ * Классификация букв на гласные и согласные.
+ * Регистр не учитывается только для латиницы, как в регулярных выражениях
+ * с флагом CASE_INSENSITIVE без UNICODE_CASE.
+ */
+public final class LetterClassifier {
+
+    public static final String VOWELS = "аеёиоуыэюяaeiouy";
+
+    public static final String CONSONANTS = "бвгджзйклмнпрстфхцчшщъьбвгджзклмнпрстфхцчшщbcdfghjklmnpqrstvwxyz";
+
+    private LetterClassifier() {
+        // Утилитарный класс
+    }
+
+    public static boolean isVowel(char c) {
+        return contains(VOWELS, c);
+    }
+
+    public static boolean isConsonant(char c) {
+        return contains(CONSONANTS, c);
+    }
+
+    private static boolean contains(String letters, char c) {
+        if (c >= 'A' && c <= 'Z') {
+            c = (char) (c + ('a' - 'A'));
+        }
+        return letters.indexOf(c) >= 0;
+    }
+}
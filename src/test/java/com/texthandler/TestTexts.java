@@ -0,0 +1,45 @@
+package com.texthandler;
+
+import com.texthandler.composite.TextComponent;
+
+/**
+ * Общие входные данные и вспомогательные методы тестов
+ */
+public final class TestTexts {
+    /**
+     * Несколько абзацев с вложенными арифметическими выражениями, отрицательными числами и кавычками
+     */
+    public static final String SAMPLE = """
+            It has survived - not only (five) centuries, but also the leap into electronic typesetting, remaining -3-5 essentially 6*9/(3+4) unchanged. It was popularised in the 5*(1+2*(3/(4-(1-56-47)*73)+(-89+4/(42/7)))+1) with the release of Letraset sheets containing Lorem Ipsum passages, and more recently with desktop publishing software like Aldus PageMaker including versions of Lorem Ipsum.
+
+            It is a long established fact that a reader will be distracted by the readable content of a page when looking at its layout. The point of using (-71+(2+3/(3*(2+1/2+2)-2)/10+2))/7 Ipsum is that it has a more-or-less normal distribution of letters, as opposed to using (Content here), content here', making it look like readable English.
+
+            It is a (7+5*12*(2+5-2-71))/12 established fact that a reader will be of a page when looking at its layout.
+
+            Bye.""";
+
+    private TestTexts() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Структура дерева строкой: тип, содержимое в кавычках и дочерние элементы в скобках
+     */
+    public static String dump(TextComponent component) {
+        StringBuilder sb = new StringBuilder();
+        dump(component, sb);
+        return sb.toString();
+    }
+
+    private static void dump(TextComponent component, StringBuilder sb) {
+        sb.append(component.getType());
+        if (component.getContent() != null) {
+            sb.append('"').append(component.getContent()).append('"');
+        }
+        sb.append('[');
+        for (TextComponent child : component.getChildren()) {
+            dump(child, sb);
+        }
+        sb.append(']');
+    }
+}
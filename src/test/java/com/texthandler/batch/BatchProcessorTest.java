@@ -0,0 +1,110 @@
+package com.texthandler.batch;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.operation.CountIdenticalWordsOperation;
+import com.texthandler.operation.SortParagraphsBySentenceCountOperation;
+import com.texthandler.operation.TextOperation;
+import com.texthandler.parser.SinglePassTextParser;
+import com.texthandler.parser.TextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProcessorTest {
+    @TempDir
+    Path tempDir;
+
+    private TextParser parser;
+    private List<TextOperation> operations;
+
+    @BeforeEach
+    void setUp() {
+        parser = new SinglePassTextParser();
+        operations = List.of(new SortParagraphsBySentenceCountOperation(), new CountIdenticalWordsOperation());
+    }
+
+    @Test
+    void testProcessDirectory() throws IOException {
+        Path nested = Files.createDirectory(tempDir.resolve("nested"));
+        for (int i = 0; i < 50; i++) {
+            Path dir = i % 2 == 0 ? tempDir : nested;
+            Files.writeString(dir.resolve(String.format("doc%02d.txt", i)),
+                    "Document " + i + " text. Second sentence.\n\nAnother paragraph.", StandardCharsets.UTF_8);
+        }
+
+        BatchResult result = new BatchProcessor(parser, operations, 4).process(tempDir);
+
+        assertEquals(50, result.getFileCount());
+        assertEquals(0, result.getFailureCount());
+        assertTrue(result.getTotalBytes() > 0);
+        assertTrue(result.getReport().contains("Файлов: 50"));
+
+        FileResult first = result.getFileResults().get(0);
+        String expected = new CountIdenticalWordsOperation().execute(parser.parse(first.getPath()));
+        assertEquals(List.of("Сортировка абзацев", "Подсчет одинаковых слов"),
+                List.copyOf(first.getOperationResults().keySet()));
+        assertEquals(expected, first.getOperationResults().get("Подсчет одинаковых слов"));
+    }
+
+    @Test
+    void testFailuresAreReportedPerFile() throws IOException {
+        Path good = Files.writeString(tempDir.resolve("good.txt"), "Fine text.");
+        Path missing = tempDir.resolve("missing.txt");
+
+        BatchResult result = new BatchProcessor(parser, operations).process(List.of(good, missing));
+
+        assertEquals(2, result.getFileCount());
+        assertEquals(1, result.getFailureCount());
+        assertTrue(result.getFileResults().get(0).isSuccessful());
+        assertFalse(result.getFileResults().get(1).isSuccessful());
+        assertEquals(missing, result.getFileResults().get(1).getPath());
+    }
+
+    @Test
+    void testErrorIsReportedAsFailure() throws IOException {
+        Path good = Files.writeString(tempDir.resolve("good.txt"), "Fine text.");
+        Path bad = Files.writeString(tempDir.resolve("bad.txt"), "Broken text.");
+        TextParser failing = new SinglePassTextParser() {
+            @Override
+            public TextComponent parse(Path path) throws IOException {
+                if (path.equals(bad)) {
+                    throw new StackOverflowError();
+                }
+                return super.parse(path);
+            }
+        };
+
+        BatchResult result = new BatchProcessor(failing, operations).process(List.of(good, bad));
+
+        assertEquals(1, result.getFailureCount());
+        assertInstanceOf(StackOverflowError.class, result.getFileResults().get(1).getError());
+        assertTrue(result.getReport().contains("java.lang.StackOverflowError"));
+    }
+
+    @Test
+    void testVirtualMachineErrorPropagates() throws IOException {
+        Path good = Files.writeString(tempDir.resolve("good.txt"), "Fine text.");
+        Path bad = Files.writeString(tempDir.resolve("bad.txt"), "Broken text.");
+        TextParser failing = new SinglePassTextParser() {
+            @Override
+            public TextComponent parse(Path path) throws IOException {
+                if (path.equals(bad)) {
+                    throw new OutOfMemoryError("Test heap exhausted");
+                }
+                return super.parse(path);
+            }
+        };
+        BatchProcessor processor = new BatchProcessor(failing, operations);
+
+        OutOfMemoryError error = assertThrows(OutOfMemoryError.class, () -> processor.process(List.of(good, bad)));
+        assertEquals("Test heap exhausted", error.getMessage());
+    }
+}
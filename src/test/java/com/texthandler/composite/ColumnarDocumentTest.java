@@ -0,0 +1,86 @@
+package com.texthandler.composite;
+
+import com.texthandler.TestTexts;
+import com.texthandler.operation.*;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.texthandler.TestTexts.dump;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarDocumentTest {
+    private TextComponent tree;
+    private ColumnarDocument document;
+
+    @BeforeEach
+    void setUp() {
+        String input = TestTexts.SAMPLE;
+        SinglePassTextParser parser = new SinglePassTextParser();
+        tree = parser.parse(input);
+        document = parser.parse(input, ColumnarDocument.builder());
+    }
+
+    @Test
+    void testSameStructureAsTree() {
+        assertEquals(dump(tree), dump(document.root()));
+        assertEquals(tree.restore(), document.root().restore());
+    }
+
+    @Test
+    void testCopyOf() {
+        ColumnarDocument copy = ColumnarDocument.copyOf(tree);
+        assertEquals(document.nodeCount(), copy.nodeCount());
+        assertEquals(dump(tree), dump(copy.root()));
+    }
+
+    @Test
+    void testArrayScanning() {
+        TextComponent root = document.root();
+        assertEquals(TextComponentType.TEXT, root.getType());
+        assertEquals(document.nodeCount(), document.subtreeEnd(0));
+        assertEquals(root.getChildren().size(), document.childCount(0));
+
+        int[] words = new int[1];
+        document.forEachOfType(0, TextComponentType.WORD, node -> words[0]++);
+        assertEquals(words[0], document.countOfType(0, TextComponentType.WORD));
+        assertTrue(words[0] > 0);
+    }
+
+    @Test
+    void testChildNavigation() {
+        for (int node = 0; node < document.nodeCount(); node++) {
+            int count = 0;
+            for (int child = document.firstChild(node); child >= 0; child = document.nextSibling(child)) {
+                assertEquals(document.child(node, count), child);
+                assertEquals(node, document.parent(child));
+                count++;
+            }
+            assertEquals(document.childCount(node), count);
+        }
+        assertEquals(-1, document.nextSibling(0));
+    }
+
+    @Test
+    void testOperationsGiveSameResults() {
+        TextOperation[] operations = {
+                new SortParagraphsBySentenceCountOperation(),
+                new FindSentencesWithLongestWordOperation(),
+                new RemoveShortSentencesOperation(5),
+                new CountIdenticalWordsOperation(),
+                new CountVowelsConsonantsOperation()
+        };
+        for (TextOperation operation : operations) {
+            assertEquals(operation.execute(tree), operation.execute(document.root()), operation.getName());
+        }
+    }
+
+    @Test
+    void testReadOnly() {
+        TextComponent root = document.root();
+        assertThrows(UnsupportedOperationException.class,
+                () -> root.add(new TextLeaf(TextComponentType.WORD, "test")));
+        assertThrows(UnsupportedOperationException.class, () -> root.setContent("test"));
+        assertThrows(IndexOutOfBoundsException.class, () -> root.getChild(root.getChildren().size()));
+    }
+}
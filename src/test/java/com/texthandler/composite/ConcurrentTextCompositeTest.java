@@ -0,0 +1,114 @@
+package com.texthandler.composite;
+
+import com.texthandler.TestTexts;
+import com.texthandler.operation.CountIdenticalWordsOperation;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTextCompositeTest {
+    private TextComponent tree;
+    private ConcurrentTextComposite document;
+
+    @BeforeEach
+    void setUp() {
+        tree = new SinglePassTextParser().parse(TestTexts.SAMPLE);
+        document = ConcurrentTextComposite.copyOf(tree);
+    }
+
+    @Test
+    void testSameTextAsTree() {
+        assertEquals(tree.restore(), document.restore());
+        assertEquals(tree.getStatistics().getWordCount(), document.getStatistics().getWordCount());
+        assertInstanceOf(ConcurrentTextComposite.class, document.getChild(0));
+    }
+
+    @Test
+    void testSnapshotSharesUnchangedParagraphs() {
+        PersistentTextNode before = document.snapshot();
+        assertSame(before, document.snapshot());
+
+        TextComponent paragraph = document.getChild(1);
+        paragraph.remove(paragraph.getChild(0));
+        PersistentTextNode after = document.snapshot();
+
+        assertNotSame(before, after);
+        assertSame(before.getChild(0), after.getChild(0));
+        assertSame(before.getChild(2), after.getChild(2));
+        assertEquals(before.getChild(1).getChildCount() - 1, after.getChild(1).getChildCount());
+        assertEquals(after.restore(), document.restore());
+    }
+
+    @Test
+    void testLeafEditsUpdateSnapshot() {
+        PersistentTextNode before = document.snapshot();
+        TextComponent lexeme = document.getChild(1).getChild(0).getChild(0);
+        TextComponent word = lexeme.getChild(0);
+        assertInstanceOf(ConcurrentTextLeaf.class, word);
+        String original = word.getContent();
+
+        word.setContent("Edited");
+        PersistentTextNode after = document.snapshot();
+        assertNotSame(before, after);
+        assertSame(before.getChild(0), after.getChild(0));
+        assertSame(before.getChild(2), after.getChild(2));
+        assertEquals("Edited", after.getChild(1).getChild(0).getChild(0).getChild(0).getContent());
+        assertEquals(original, before.getChild(1).getChild(0).getChild(0).getChild(0).getContent());
+        assertEquals(after.restore(), document.restore());
+        assertTrue(document.restore().contains("Edited"));
+        assertSame(after, document.snapshot());
+    }
+
+    @Test
+    void testReadersDuringEdits() throws Exception {
+        TextComponent paragraph = document.getChild(0);
+        TextComponent sentence = paragraph.getChild(0);
+        String withSentence = document.restore();
+        paragraph.remove(sentence);
+        String withoutSentence = document.restore();
+        paragraph.add(sentence);
+        String appended = document.restore();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    CountIdenticalWordsOperation operation = new CountIdenticalWordsOperation();
+                    while (running.get()) {
+                        String text = document.restore();
+                        assertTrue(text.equals(appended) || text.equals(withoutSentence), text);
+                        assertNotNull(operation.execute(document.snapshot()));
+                        document.forEachDescendant(TextComponentType.SENTENCE, TextComponent::getType);
+                    }
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < 2_000; i++) {
+                paragraph.remove(sentence);
+                paragraph.add(sentence);
+            }
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(appended, document.restore());
+        assertNotEquals(withSentence, appended);
+    }
+}
@@ -0,0 +1,114 @@
+package com.texthandler.composite;
+
+import com.texthandler.TestTexts;
+import com.texthandler.operation.RemoveShortSentencesOperation;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentTextNodeTest {
+    private TextComponent tree;
+    private PersistentTextNode document;
+
+    @BeforeEach
+    void setUp() {
+        String input = TestTexts.SAMPLE;
+        SinglePassTextParser parser = new SinglePassTextParser();
+        tree = parser.parse(input);
+        document = parser.parse(input, new PersistentTreeBuilder());
+    }
+
+    @Test
+    void testSameTextAsTree() {
+        assertEquals(tree.restore(), document.restore());
+        assertEquals(tree.getChildCount(), document.getChildCount());
+        assertEquals(tree.getStatistics().getWordCount(), document.getStatistics().getWordCount());
+        assertEquals(tree.restore(), PersistentTextNode.copyOf(tree).restore());
+    }
+
+    @Test
+    void testImmutable() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> document.add(PersistentTextNode.leaf(TextComponentType.WORD, "word")));
+        assertThrows(UnsupportedOperationException.class, () -> document.remove(document.getChild(0)));
+        assertThrows(UnsupportedOperationException.class, () -> document.setContent("text"));
+        assertThrows(UnsupportedOperationException.class, () -> document.getChildrenView().clear());
+    }
+
+    @Test
+    void testTransformationsShareUnchangedSubtrees() {
+        String original = document.restore();
+        PersistentTextNode withoutFirst = document.withoutChild(0);
+
+        assertEquals(document.getChildCount() - 1, withoutFirst.getChildCount());
+        for (int i = 0; i < withoutFirst.getChildCount(); i++) {
+            assertSame(document.getChild(i + 1), withoutFirst.getChild(i));
+        }
+        assertEquals(original, document.restore());
+
+        PersistentTextNode paragraph = (PersistentTextNode) document.getChild(1);
+        PersistentTextNode changed = document.withChild(1, paragraph.withoutChild(0));
+        assertSame(document.getChild(0), changed.getChild(0));
+        assertSame(paragraph.getChild(1), changed.getChild(1).getChild(0));
+        assertNotEquals(original, changed.restore());
+
+        assertSame(document, document.filterChildren(child -> true));
+        assertSame(document, document.mapChildren(child -> child));
+    }
+
+    @Test
+    void testCopyOfMutableChild() {
+        TextComponent word = new TextLeaf(TextComponentType.WORD, "Hello");
+        PersistentTextNode sentence = PersistentTextNode.composite(TextComponentType.SENTENCE, List.of(word));
+        word.setContent("Changed");
+
+        assertEquals("Hello", sentence.restore());
+        assertInstanceOf(PersistentTextNode.class, sentence.getChild(0));
+    }
+
+    @Test
+    void testConcurrentReads() {
+        String expected = tree.restore();
+        List<String> restored = IntStream.range(0, 16).parallel()
+                .mapToObj(i -> document.restore())
+                .toList();
+        restored.forEach(text -> assertEquals(expected, text));
+    }
+
+    @Test
+    void testRemoveShortSentencesKeepsUnchangedParagraphs() {
+        RemoveShortSentencesOperation operation = new RemoveShortSentencesOperation(5);
+        assertEquals(operation.execute(tree), operation.execute(document));
+        assertEquals(tree.restore(), document.restore());
+
+        // Абзацы без удаленных предложений переходят в результат без копирования
+        TextComponent filtered = operation.filter(document);
+        int index = 0;
+        int unchanged = 0;
+        for (TextComponent paragraph : document.getChildrenView()) {
+            long kept = paragraph.getChildrenView().stream()
+                    .filter(sentence -> sentence.getStatistics().getWordCount() >= 5)
+                    .count();
+            if (kept == 0) {
+                continue;
+            }
+            TextComponent result = filtered.getChild(index++);
+            if (kept == paragraph.getChildCount()) {
+                assertSame(paragraph, result);
+                unchanged++;
+            } else {
+                assertEquals(kept, result.getChildCount());
+            }
+        }
+        assertEquals(index, filtered.getChildCount());
+        assertTrue(unchanged > 0);
+
+        // Если ни одно предложение не удалено, результат - тот же документ
+        assertSame(document, new RemoveShortSentencesOperation(1).filter(document));
+    }
+}
@@ -0,0 +1,67 @@
+package com.texthandler.composite;
+
+import com.texthandler.TestTexts;
+import com.texthandler.operation.CountIdenticalWordsOperation;
+import com.texthandler.parser.SinglePassTextParser;
+import com.texthandler.parser.TextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+    private SymbolTable symbolTable;
+
+    @BeforeEach
+    void setUp() {
+        symbolTable = new SymbolTable();
+    }
+
+    @Test
+    void testSameTokenSharesLeaf() {
+        SymbolLeaf first = symbolTable.intern(TextComponentType.WORD, "text");
+        SymbolLeaf second = symbolTable.intern(TextComponentType.WORD, new String("text"));
+        SymbolLeaf punctuation = symbolTable.intern(TextComponentType.PUNCTUATION, "text");
+
+        assertSame(first, second);
+        assertNotSame(first, punctuation);
+        assertEquals(0, first.getId());
+        assertEquals(1, punctuation.getId());
+        assertEquals(2, symbolTable.size());
+        assertThrows(UnsupportedOperationException.class, () -> first.setContent("other"));
+    }
+
+    @Test
+    void testBoundedTableFallsBackToCopies() {
+        SymbolTable bounded = new SymbolTable(1);
+        LeafFactory factory = LeafFactory.interning(bounded);
+
+        TextComponent first = factory.createLeaf(TextComponentType.WORD, "one two", 0, 3);
+        TextComponent second = factory.createLeaf(TextComponentType.WORD, "one two", 4, 7);
+
+        assertInstanceOf(SymbolLeaf.class, first);
+        assertInstanceOf(TextLeaf.class, second);
+        assertEquals("two", second.getContent());
+        assertNull(bounded.intern(TextComponentType.WORD, "three"));
+        assertEquals(1, bounded.size());
+    }
+
+    @Test
+    void testInternedTreeGivesSameResults() {
+        String input = TestTexts.SAMPLE
+                + "\n\nThe the THE text, text. Text!";
+        TextParser parser = new SinglePassTextParser();
+        TextParser internedParser = new SinglePassTextParser(LeafFactory.interning(symbolTable));
+
+        TextComponent expected = parser.parse(input);
+        TextComponent result = internedParser.parse(input);
+        CountIdenticalWordsOperation operation = new CountIdenticalWordsOperation();
+
+        assertEquals(expected.restore(), result.restore());
+        assertEquals(operation.execute(expected), operation.execute(result));
+
+        TextComponent lastSentence = result.getChild(result.getChildren().size() - 1).getChild(0);
+        assertSame(lastSentence.getChild(1).getChild(0), symbolTable.intern(TextComponentType.WORD, "the"));
+    }
+}
@@ -2,6 +2,12 @@ package com.texthandler.composite;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TextCompositeTest {
@@ -55,4 +61,100 @@ class TextCompositeTest {
             textComposite.getChild(0);
         });
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testChildrenViewWithoutCopy() {
+        TextComponent child = new TextLeaf(TextComponentType.WORD, "test");
+        textComposite.add(child);
+        
+        List<TextComponent> view = textComposite.getChildrenView();
+        assertEquals(1, textComposite.getChildCount());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(child));
+        
+        textComposite.add(new TextLeaf(TextComponentType.WORD, "more"));
+        assertEquals(2, view.size());
+        assertEquals(0, child.getChildCount());
+    }
+    
+    @Test
+    void testForEachDescendant() {
+        for (String text : new String[] {"One two.", "Three."}) {
+            TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+            for (String word : text.split(" ")) {
+                sentence.add(new TextLeaf(TextComponentType.WORD, word));
+            }
+            textComposite.add(sentence);
+        }
+        
+        List<String> words = new ArrayList<>();
+        textComposite.forEachDescendant(TextComponentType.WORD, word -> words.add(word.getContent()));
+        assertEquals(List.of("One", "two.", "Three."), words);
+        
+        int[] sentences = new int[1];
+        textComposite.forEachDescendant(TextComponentType.SENTENCE, sentence -> sentences[0]++);
+        assertEquals(2, sentences[0]);
+    }
+    
+    @Test
+    void testRestoreToAppendable() throws IOException {
+        TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+        sentence.add(new TextLeaf(TextComponentType.WORD, "Hello"));
+        sentence.add(new TextLeaf(TextComponentType.WORD, "world"));
+        sentence.add(new TextLeaf(TextComponentType.PUNCTUATION, "!"));
+        textComposite.add(sentence);
+        
+        StringWriter writer = new StringWriter();
+        textComposite.restoreTo(writer);
+        assertEquals("Hello world!", writer.toString());
+        assertEquals(writer.toString().length(), textComposite.getRestoredLength());
+    }
+    
+    @Test
+    void testRestoreCacheInvalidation() {
+        TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+        TextComponent word = new TextLeaf(TextComponentType.WORD, "old");
+        sentence.add(word);
+        textComposite.add(sentence);
+        
+        String restored = textComposite.restore();
+        assertSame(restored, textComposite.restore());
+        
+        word.setContent("new");
+        assertEquals("new", textComposite.restore());
+        
+        sentence.add(new TextLeaf(TextComponentType.WORD, "words"));
+        assertEquals("new words", textComposite.restore());
+        
+        sentence.remove(word);
+        assertEquals("words", textComposite.restore());
+    }
+    
+    @Test
+    void testRestoreCacheIsOptIn() {
+        TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+        sentence.add(new TextLeaf(TextComponentType.WORD, "one"));
+        sentence.add(new TextLeaf(TextComponentType.WORD, "two"));
+        assertNotSame(sentence.restore(), sentence.restore());
+
+        TextComponent cached = new TextComposite(TextComponentType.SENTENCE, true);
+        cached.add(new TextLeaf(TextComponentType.WORD, "one"));
+        assertSame(cached.restore(), cached.restore());
+        assertEquals("one", cached.restore());
+    }
+    
+    @Test
+    void testSharedChildIsNotCachedStale() {
+        TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+        TextComponent word = new TextLeaf(TextComponentType.WORD, "old");
+        sentence.add(word);
+        textComposite.add(sentence);
+        
+        TextComponent copy = new TextComposite(TextComponentType.TEXT);
+        copy.add(sentence);
+        assertEquals("old", copy.restore());
+        
+        word.setContent("new");
+        assertEquals("new", copy.restore());
+        assertEquals("new", textComposite.restore());
+    }
+}
@@ -0,0 +1,92 @@
+package com.texthandler.composite;
+
+import com.texthandler.TestTexts;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextStatisticsTest {
+    private TextComponent text;
+
+    @BeforeEach
+    void setUp() {
+        text = new SinglePassTextParser().parse(TestTexts.SAMPLE);
+    }
+
+    @Test
+    void testAggregatesMatchTreeWalk() {
+        TextStatistics statistics = text.getStatistics();
+
+        int[] words = new int[1];
+        int[] sentences = new int[1];
+        int[] maxLength = new int[1];
+        text.forEachDescendant(TextComponentType.WORD, word -> {
+            words[0]++;
+            maxLength[0] = Math.max(maxLength[0], word.getContent().length());
+        });
+        text.forEachDescendant(TextComponentType.SENTENCE, sentence -> sentences[0]++);
+
+        assertEquals(words[0], statistics.getWordCount());
+        assertEquals(sentences[0], statistics.getSentenceCount());
+        assertEquals(maxLength[0], statistics.getMaxWordLength());
+        assertEquals(text.restore().length(), statistics.getCharacterCount());
+        assertTrue(statistics.getVowelCount() > 0);
+        assertTrue(statistics.getConsonantCount() > 0);
+    }
+
+    @Test
+    void testSameStatisticsForColumnarDocument() {
+        TextStatistics expected = text.getStatistics();
+        TextStatistics result = ColumnarDocument.copyOf(text).root().getStatistics();
+
+        assertEquals(expected.getWordCount(), result.getWordCount());
+        assertEquals(expected.getSentenceCount(), result.getSentenceCount());
+        assertEquals(expected.getLongestWord(), result.getLongestWord());
+        assertEquals(expected.getCharacterCount(), result.getCharacterCount());
+        assertEquals(expected.getVowelCount(), result.getVowelCount());
+        assertEquals(expected.getConsonantCount(), result.getConsonantCount());
+    }
+
+    @Test
+    void testUpdatedOnAddAndRemove() {
+        TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+        TextComponent lexeme = new TextComposite(TextComponentType.LEXEME);
+        lexeme.add(new TextLeaf(TextComponentType.WORD, "Yes"));
+        lexeme.add(new TextLeaf(TextComponentType.PUNCTUATION, "!"));
+        sentence.add(lexeme);
+
+        TextComponent paragraph = new TextComposite(TextComponentType.PARAGRAPH);
+        paragraph.add(sentence);
+        TextStatistics before = paragraph.getStatistics();
+        assertSame(before, paragraph.getStatistics());
+        assertEquals(1, before.getSentenceCount());
+        assertEquals(1, before.getWordCount());
+        assertEquals(2, before.getVowelCount());
+        assertEquals(1, before.getConsonantCount());
+
+        TextComponent longer = new TextLeaf(TextComponentType.WORD, "absolutely");
+        lexeme.add(longer);
+        assertEquals(2, paragraph.getStatistics().getWordCount());
+        assertEquals("absolutely", paragraph.getStatistics().getLongestWord());
+
+        lexeme.remove(longer);
+        assertEquals(1, paragraph.getStatistics().getWordCount());
+        assertEquals("Yes", paragraph.getStatistics().getLongestWord());
+    }
+
+    @Test
+    void testSentenceLevelContent() {
+        TextComponent sentence = new TextComposite(TextComponentType.SENTENCE);
+        sentence.setContent("Мама мыла раму.");
+
+        TextStatistics statistics = sentence.getStatistics();
+        assertEquals(1, statistics.getSentenceCount());
+        assertEquals(0, statistics.getWordCount());
+        // Заглавная кириллица не учитывается, как и в исходном регулярном выражении
+        assertEquals(6, statistics.getVowelCount());
+        assertEquals(5, statistics.getConsonantCount());
+    }
+}
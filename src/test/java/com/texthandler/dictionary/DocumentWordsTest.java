@@ -0,0 +1,130 @@
+package com.texthandler.dictionary;
+
+import com.texthandler.composite.ColumnarDocument;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentWordsTest {
+
+    @Test
+    void testDictionaryAssignsIdsInFirstOccurrenceOrder() {
+        WordDictionary dictionary = new WordDictionary();
+        assertEquals(0, dictionary.add("Hello"));
+        assertEquals(1, dictionary.add("world"));
+        assertEquals(0, dictionary.add("hello"));
+        assertEquals(0, dictionary.add("HELLO"));
+        assertEquals(WordDictionary.NO_WORD, dictionary.add(" "));
+
+        assertEquals(2, dictionary.size());
+        assertEquals("hello", dictionary.word(0));
+        assertEquals(1, dictionary.idOf("World"));
+        assertEquals(WordDictionary.NO_WORD, dictionary.idOf("missing"));
+    }
+
+    @Test
+    void testSentenceWordStreams() {
+        TextComponent text = new SinglePassTextParser().parse("The cat saw the dog. The dog ran.\n\nCat!");
+        DocumentWords words = DocumentWords.of(text);
+
+        assertEquals(3, words.getSentenceCount());
+        assertArrayEquals(new int[]{0, 1, 2, 0, 3}, words.getSentenceWords(0));
+        assertArrayEquals(new int[]{0, 3, 4}, words.getSentenceWords(1));
+        assertArrayEquals(new int[]{1}, words.getSentenceWords(2));
+        assertEquals(9, words.getWordCount());
+
+        IntCounter counts = words.countWords();
+        assertEquals(3, counts.get(0));
+        assertEquals(2, counts.get(1));
+        assertEquals(0, counts.get(100));
+    }
+
+    @Test
+    void testSameStreamsForColumnarDocument() {
+        String input = "First sentence here. Second one.\n\nThird (2+3) sentence.";
+        TextComponent tree = new SinglePassTextParser().parse(input);
+        DocumentWords expected = DocumentWords.of(tree);
+        DocumentWords result = DocumentWords.of(ColumnarDocument.copyOf(tree).root());
+
+        assertEquals(expected.getSentenceCount(), result.getSentenceCount());
+        for (int i = 0; i < expected.getSentenceCount(); i++) {
+            assertArrayEquals(expected.getSentenceWords(i), result.getSentenceWords(i));
+        }
+    }
+
+    @Test
+    void testMergePreservesFirstOccurrenceOrder() {
+        WordFrequencies first = new WordFrequencies();
+        first.addWord("b");
+        first.addWord("A");
+        WordFrequencies second = new WordFrequencies();
+        second.addWord("c");
+        second.addWord("a");
+        second.addWord("a");
+
+        WordDictionary dictionary = first.merge(second).getDictionary();
+        assertEquals(3, dictionary.size());
+        assertEquals("b", dictionary.word(0));
+        assertEquals("a", dictionary.word(1));
+        assertEquals("c", dictionary.word(2));
+        assertEquals(3, first.getCount(1));
+        assertEquals(1, first.getCount(2));
+    }
+
+    @Test
+    void testParallelCountMatchesSequential() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            input.append("Word").append(i % 37).append(" the Cat saw word").append(i % 11)
+                    .append(". The dog ran ").append(i).append(" times.\n\n");
+        }
+        TextComponent tree = new SinglePassTextParser().parse(input.toString());
+        WordFrequencies expected = WordFrequencies.of(DocumentWords.of(tree));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (TextComponent document : new TextComponent[]{tree, ColumnarDocument.copyOf(tree).root()}) {
+                WordFrequencies result = WordFrequencies.count(document, pool, 1);
+                assertEquals(expected.getDictionary().size(), result.getDictionary().size());
+                for (int id = 0; id < expected.getDictionary().size(); id++) {
+                    assertEquals(expected.getDictionary().word(id), result.getDictionary().word(id));
+                    assertEquals(expected.getCount(id), result.getCount(id));
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> WordFrequencies.count(tree, pool, 0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testIntIntHashMap() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            int key = (i * 7919) % 3001 - 1500;
+            map.addTo(key, i);
+            expected.merge(key, i, Integer::sum);
+        }
+        map.put(Integer.MIN_VALUE, 5);
+        expected.put(Integer.MIN_VALUE, 5);
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value.intValue(), map.get(key)));
+        assertFalse(map.containsKey(5000));
+        assertEquals(0, map.get(5000));
+
+        int[] visited = new int[1];
+        map.forEach((key, value) -> {
+            assertEquals(expected.get(key).intValue(), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+}
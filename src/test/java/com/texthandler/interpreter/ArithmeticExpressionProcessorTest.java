@@ -0,0 +1,63 @@
+package com.texthandler.interpreter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArithmeticExpressionProcessorTest {
+    private ArithmeticExpressionProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new ArithmeticExpressionProcessor();
+    }
+
+    @Test
+    void testSimpleAndParenthesesExpressions() {
+        assertEquals("Sum 5.0 here.", processor.processExpressions("Sum 2+3 here."));
+        assertEquals("Value 7.714285714285714 end", processor.processExpressions("Value 6*9/(3+4) end"));
+        assertEquals("Nested 9.0.", processor.processExpressions("Nested ((1+2)*3)."));
+        assertEquals("x 7450.0 y", processor.processExpressions("x (4-(1-56-47)*73) y"));
+    }
+
+    @Test
+    void testGroupsWithoutExpressionsAreKept() {
+        assertEquals("Not only (five) centuries", processor.processExpressions("Not only (five) centuries"));
+        assertEquals("Outer (a (5) b+1)", processor.processExpressions("Outer (a (5) b+1)"));
+        assertEquals("Unbalanced (5.0", processor.processExpressions("Unbalanced (2+3"));
+        assertEquals("Close 5.0) only", processor.processExpressions("Close (2+3)) only"));
+    }
+
+    @Test
+    void testFailedExpressionIsKept() {
+        assertEquals("Divide 1/0 and 2.0", processor.processExpressions("Divide 1/0 and 1+1"));
+        assertEquals("Group (1/0) and 4.0", processor.processExpressions("Group (1/0) and (2*2)"));
+    }
+
+    @Test
+    void testReplacesOnlyMatchedOccurrence() {
+        // Совпадение внутри другого токена не заменяется
+        assertEquals("4.0 and 2*2b", processor.processExpressions("2*2 and 2*2b"));
+        assertEquals("Also 4.0 and 2*2b", processor.processExpressions("Also (2*2) and 2*2b"));
+    }
+
+    @Test
+    void testTextWithoutExpressionsIsReturnedAsIs() {
+        String text = "Plain text without numbers - just words.";
+        assertSame(text, processor.processExpressions(text));
+        String numbers = "Numbers 1 2 3 without operators.";
+        assertSame(numbers, processor.processExpressions(numbers));
+    }
+
+    @Test
+    void testManyExpressions() {
+        StringBuilder text = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            text.append("Row (").append(i).append("+1)*2 and ").append(i).append("-1. ");
+            expected.append("Row ").append((i + 1) * 2.0).append(" and ").append(i - 1.0).append(". ");
+        }
+        assertEquals(expected.toString(), processor.processExpressions(text.toString()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.texthandler.interpreter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCacheTest {
+    private ExpressionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ExpressionCache(3);
+    }
+
+    @Test
+    void testCompile() {
+        assertEquals(7.0, ExpressionCompiler.compile("1 + 2 * 3").evaluate());
+        assertEquals(-9.0, ExpressionCompiler.compile("-(1+2)*3").evaluate());
+        assertEquals(7450.0, ExpressionCompiler.compile("4--102.0*73").evaluate());
+        assertThrows(ArithmeticException.class, () -> ExpressionCompiler.compile("1/(2-2)").evaluate());
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("2*"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("(2+3"));
+    }
+
+    @Test
+    void testRepeatedExpressionIsCompiledOnce() {
+        Expression first = cache.get("2 + 3");
+        assertSame(first, cache.get("2+3"));
+        assertSame(first, cache.get("2 +\t3"));
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testRangeLookupMatchesNormalizedKey() {
+        String text = "Sum: 12 + 3 * 2 and (12+3*2)";
+        Expression first = cache.get(text, 5, 15);
+        assertEquals(18.0, first.evaluate());
+        assertSame(first, cache.get(text, 21, 27));
+        assertSame(first, cache.get("12+3*2"));
+        assertNotSame(first, cache.get(text, 5, 11));
+
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        Expression a = cache.get("1+1");
+        cache.get("2+2");
+        cache.get("3+3");
+        cache.get("1+1");
+        cache.get("4+4");
+
+        assertEquals(3, cache.size());
+        assertSame(a, cache.get("1+1"));
+        long misses = cache.getMisses();
+        cache.get("2+2");
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    void testInvalidExpressionIsNotCached() {
+        assertThrows(IllegalArgumentException.class, () -> cache.get("1+x"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testProcessorUsesCache() {
+        ArithmeticExpressionProcessor processor = new ArithmeticExpressionProcessor(new ExpressionCache());
+        processor.processExpressions("Total (2+3) and 2+3, total (2+3) and 2 + 3.");
+
+        ExpressionCache processorCache = processor.getExpressionCache();
+        assertEquals(1, processorCache.getMisses());
+        assertEquals(3, processorCache.getHits());
+    }
+
+    @Test
+    void testConcurrentAccess() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        assertEquals(i % 5 + 1.0, cache.get((i % 5) + "+1").evaluate());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(4_000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= cache.getCapacity());
+    }
+}
@@ -0,0 +1,48 @@
+package com.texthandler.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCompilerTest {
+
+    @Test
+    void testCompileRange() {
+        String text = "Price: (12.5 + 7.5) * 2 USD";
+        assertEquals(40.0, ExpressionCompiler.compile(text, 7, 23).evaluate());
+        assertEquals(12.5, ExpressionCompiler.compile(text, 8, 12).evaluate());
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(text, 7, 12));
+    }
+
+    @Test
+    void testSpacesAreIgnoredEverywhere() {
+        assertEquals(15.0, ExpressionCompiler.compile("1 2+3").evaluate());
+        assertEquals(3.5, ExpressionCompiler.compile(" 2 . 5 +\t1\n").evaluate());
+        assertEquals(-4.0, ExpressionCompiler.compile("- ( 1 + 1 ) * 2").evaluate());
+    }
+
+    @Test
+    void testInvalidNumbers() {
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("1.2.3+1"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(".+1"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("1+x"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("   "));
+    }
+
+    @Test
+    void testLiteralsMatchParseDouble() {
+        String[] literals = {"0", "007", ".5", "5.", "0.1", "0.30000000000000004", "123456789012345678901234567890",
+                "9007199254740993", "9007199254740992", "1.0000000000000000000000001", "0.000000000000000000000001"};
+        for (String literal : literals) {
+            assertEquals(Double.parseDouble(literal), ExpressionCompiler.compile(literal).evaluate(), literal);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            String literal = random.nextInt(1 << random.nextInt(31)) + "." + random.nextInt(1 << random.nextInt(31));
+            assertEquals(Double.parseDouble(literal), ExpressionCompiler.compile(literal).evaluate(), literal);
+        }
+    }
+}
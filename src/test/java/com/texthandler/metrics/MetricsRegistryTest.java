@@ -0,0 +1,106 @@
+package com.texthandler.metrics;
+
+import com.texthandler.interpreter.ArithmeticExpressionProcessor;
+import com.texthandler.operation.RemoveShortSentencesOperation;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    void testCounterAndGauge() {
+        Counter counter = registry.counter("items");
+        counter.increment();
+        counter.add(4);
+        assertSame(counter, registry.counter("items"));
+        assertEquals(5, counter.get());
+
+        long[] value = {7};
+        registry.gauge("size", () -> value[0]);
+        value[0] = 9;
+        assertEquals("items = 5\nsize = 9\n", registry.summary());
+
+        registry.reset();
+        assertEquals(0, counter.get());
+        assertEquals("size = 9\n", registry.summary());
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        Histogram histogram = registry.histogram("latency");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(63, histogram.getPercentile(0.5));
+        assertEquals(100, histogram.getPercentile(0.99));
+        assertTrue(registry.summary().startsWith("latency: count=101 mean=50 p50<=63 p99<=100 max=100"));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+    }
+
+    @Test
+    void testHotPathsUpdateGlobalMetrics() {
+        MetricsRegistry global = MetricsRegistry.global();
+        long evaluated = global.counter("interpreter.expressions.evaluated").get();
+        long failed = global.counter("interpreter.expressions.failed").get();
+        long paragraphs = global.histogram("parser.single-pass.paragraph.nanos").getCount();
+        long removed = global.counter("operation.remove-short.removed").get();
+
+        new ArithmeticExpressionProcessor().processExpressions("Sum 2+3 and 1/0, (4*5).");
+        assertEquals(evaluated + 2, global.counter("interpreter.expressions.evaluated").get());
+        assertEquals(failed + 1, global.counter("interpreter.expressions.failed").get());
+
+        new RemoveShortSentencesOperation(3).execute(
+                new SinglePassTextParser().parse("One two three four. Short.\n\nAnother short one here. Tiny."));
+        assertEquals(paragraphs + 2, global.histogram("parser.single-pass.paragraph.nanos").getCount());
+        assertEquals(removed + 2, global.counter("operation.remove-short.removed").get());
+    }
+
+    @Test
+    void testReporter() throws InterruptedException {
+        registry.counter("events").increment();
+        CountDownLatch reported = new CountDownLatch(2);
+        MetricsReporter reporter = MetricsReporter.start(registry, Duration.ofMillis(10), summary -> {
+            assertEquals("events = 1\n", summary);
+            reported.countDown();
+        });
+        try {
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+        } finally {
+            reporter.close();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> MetricsReporter.start(registry, Duration.ZERO, summary -> { }));
+    }
+
+    @Test
+    void testReporterWithSubMillisecondPeriod() throws InterruptedException {
+        registry.counter("events").increment();
+        CountDownLatch reported = new CountDownLatch(3);
+        MetricsReporter reporter = MetricsReporter.start(registry, Duration.ofNanos(500_000), summary -> reported.countDown());
+        try {
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+        } finally {
+            reporter.close();
+        }
+        MetricsReporter.start(registry, Duration.ofSeconds(Long.MAX_VALUE), summary -> { }).close();
+    }
+}
@@ -0,0 +1,164 @@
+package com.texthandler.operation;
+
+import com.texthandler.TestTexts;
+import com.texthandler.composite.ColumnarDocument;
+import com.texthandler.composite.ConcurrentTextComposite;
+import com.texthandler.composite.PersistentTextNode;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.metrics.Histogram;
+import com.texthandler.metrics.MetricsRegistry;
+import com.texthandler.parser.ParserChainFactory;
+import com.texthandler.parser.SinglePassTextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FusedOperationExecutorTest {
+    private String text;
+
+    @BeforeEach
+    void setUp() {
+        text = TestTexts.SAMPLE
+                + "\n\nShort one. The cat saw the cat (2+3) times. Cat!\n\nTiny.";
+    }
+
+    private static List<TextOperation> allOperations() {
+        return List.of(
+                new SortParagraphsBySentenceCountOperation(),
+                new FindSentencesWithLongestWordOperation(),
+                new RemoveShortSentencesOperation(5),
+                new CountIdenticalWordsOperation(),
+                new CountVowelsConsonantsOperation());
+    }
+
+    private static void assertSameAsSeparate(TextComponent document) {
+        List<TextOperation> operations = allOperations();
+        List<String> expected = new ArrayList<>();
+        for (TextOperation operation : operations) {
+            expected.add(operation.execute(document));
+        }
+        assertEquals(expected, new FusedOperationExecutor(operations).execute(document));
+    }
+
+    @Test
+    void testSameResultsAsSeparateExecution() {
+        TextComponent tree = new SinglePassTextParser().parse(text);
+        assertSameAsSeparate(tree);
+        assertSameAsSeparate(ParserChainFactory.createChain().parse(text));
+        assertSameAsSeparate(ColumnarDocument.copyOf(tree).root());
+        assertSameAsSeparate(PersistentTextNode.copyOf(tree));
+        assertSameAsSeparate(ConcurrentTextComposite.copyOf(tree));
+        assertSameAsSeparate(tree.getChild(0));
+    }
+
+    @Test
+    void testParallelWordCountMatchesSequential() {
+        TextComponent tree = new SinglePassTextParser().parse(text.repeat(20));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(new CountIdenticalWordsOperation().execute(tree),
+                    new CountIdenticalWordsOperation(pool).execute(tree));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testFailedOperationDoesNotStopOthers() {
+        TextComponent tree = new SinglePassTextParser().parse(text);
+        TextOperation failing = new CountVowelsConsonantsOperation() {
+            @Override
+            public OperationAccumulator accumulator(TextComponent document) {
+                return new OperationAccumulator() {
+                    @Override
+                    public void sentence(Sentence sentence) {
+                        throw new IllegalStateException("broken");
+                    }
+
+                    @Override
+                    public String result() {
+                        throw new AssertionError("Result of a failed accumulator is not expected");
+                    }
+                };
+            }
+        };
+        List<TextOperation> operations = List.of(new SortParagraphsBySentenceCountOperation(), failing,
+                new CountIdenticalWordsOperation());
+        FusedOperationExecutor executor = new FusedOperationExecutor(operations);
+
+        List<FusedOperationExecutor.Result> results = executor.executeEach(tree);
+        assertEquals(new SortParagraphsBySentenceCountOperation().execute(tree), results.get(0).get());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("broken", results.get(1).error().getMessage());
+        assertEquals(new CountIdenticalWordsOperation().execute(tree), results.get(2).get());
+        assertThrows(IllegalStateException.class, () -> executor.execute(tree));
+    }
+
+    @Test
+    void testOperationTimesAreRecorded() {
+        TextComponent tree = new SinglePassTextParser().parse(text);
+        Histogram sortTime = MetricsRegistry.global().histogram("operation.SortParagraphsBySentenceCountOperation.nanos");
+        Histogram vowelsTime = MetricsRegistry.global().histogram("operation.CountVowelsConsonantsOperation.nanos");
+        long sorts = sortTime.getCount();
+        long vowels = vowelsTime.getCount();
+
+        new FusedOperationExecutor(List.of(new SortParagraphsBySentenceCountOperation(),
+                new CountVowelsConsonantsOperation())).execute(tree);
+        assertEquals(sorts + 1, sortTime.getCount());
+        assertEquals(vowels + 1, vowelsTime.getCount());
+    }
+
+    @Test
+    void testDocumentIsWalkedOnce() {
+        TextComponent tree = new SinglePassTextParser().parse(text);
+        int[] events = new int[2];
+        TextOperation counting = new TextOperation() {
+            @Override
+            public String execute(TextComponent textComponent) {
+                throw new AssertionError("Separate execution is not expected");
+            }
+
+            @Override
+            public OperationAccumulator accumulator(TextComponent document) {
+                return new OperationAccumulator() {
+                    @Override
+                    public void startParagraph(int index, TextComponent paragraph) {
+                        assertEquals(events[0]++, index);
+                    }
+
+                    @Override
+                    public void sentence(Sentence sentence) {
+                        events[1]++;
+                        assertSame(sentence.getText(), sentence.getText());
+                    }
+
+                    @Override
+                    public String result() {
+                        return events[0] + "/" + events[1];
+                    }
+                };
+            }
+
+            @Override
+            public String getDescription() {
+                return "counting";
+            }
+
+            @Override
+            public String getName() {
+                return "counting";
+            }
+        };
+
+        List<String> results = new FusedOperationExecutor(List.of(counting)).execute(tree);
+        int[] sentences = new int[1];
+        tree.forEachDescendant(TextComponentType.SENTENCE, sentence -> sentences[0]++);
+        assertEquals(List.of(tree.getChildCount() + "/" + sentences[0]), results);
+    }
+}
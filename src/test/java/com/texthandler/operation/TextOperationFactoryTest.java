@@ -1,8 +1,12 @@
 package com.texthandler.operation;
 
+import com.texthandler.composite.TextComponentType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TextOperationFactoryTest {
@@ -71,4 +75,13 @@ class TextOperationFactoryTest {
         assertInstanceOf(CountIdenticalWordsOperation.class, TextOperationFactory.createOperation(4));
         assertInstanceOf(CountVowelsConsonantsOperation.class, TextOperationFactory.createOperation(5));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRequiredDepth() {
+        assertEquals(TextComponentType.SENTENCE, TextOperationFactory.getRequiredDepth(
+                List.of(new SortParagraphsBySentenceCountOperation(), new CountVowelsConsonantsOperation())));
+        assertEquals(TextComponentType.WORD, TextOperationFactory.getRequiredDepth(
+                List.of(new SortParagraphsBySentenceCountOperation(), new CountIdenticalWordsOperation())));
+        assertEquals(TextComponentType.PARAGRAPH, TextOperationFactory.getRequiredDepth(List.of()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalTextParserTest {
+    private IncrementalTextParser incrementalParser;
+    private TextParser parserChain;
+
+    @BeforeEach
+    void setUp() {
+        incrementalParser = new IncrementalTextParser();
+        parserChain = ParserChainFactory.createChain();
+    }
+
+    @Test
+    void testEditReparsesOnlyAffectedParagraph() {
+        String text = "First paragraph here.\n\nSecond one (2+3) is short.\n\nThird paragraph.";
+        ParsedDocument document = incrementalParser.parse(text);
+        int offset = text.indexOf("short");
+
+        ParsedDocument edited = incrementalParser.applyEdit(document, offset, "short".length(), "long. Really");
+
+        assertEquals("First paragraph here.\n\nSecond one (2+3) is long. Really.\n\nThird paragraph.",
+                edited.getText());
+        assertEquals(3, edited.getParagraphCount());
+        assertSame(document.getRoot().getChild(0), edited.getRoot().getChild(0));
+        assertNotSame(document.getRoot().getChild(1), edited.getRoot().getChild(1));
+        assertSame(document.getRoot().getChild(2), edited.getRoot().getChild(2));
+        assertEquals(2, edited.getRoot().getChild(1).getChildren().size());
+        assertEquals(document.getParagraphStart(2) + 7, edited.getParagraphStart(2));
+        assertEquals(parserChain.parse(edited.getText()).restore(), edited.getRoot().restore());
+    }
+
+    @Test
+    void testEditMergesAndSplitsParagraphs() {
+        String text = "One.\n\nTwo.\n\nThree.";
+        ParsedDocument document = incrementalParser.parse(text);
+
+        ParsedDocument merged = incrementalParser.applyEdit(document, 4, 2, " ");
+        assertEquals(2, merged.getParagraphCount());
+        assertEquals(2, merged.getRoot().getChild(0).getChildren().size());
+
+        ParsedDocument split = incrementalParser.applyEdit(merged, 4, 1, "\n\t");
+        assertEquals(3, split.getParagraphCount());
+        assertEquals("Two.", split.getRoot().getChild(1).restore());
+    }
+
+    @Test
+    void testRandomEditsMatchFullParse() {
+        String alphabet = "abcXY01.,!?+* \n\n\n\t\t    ";
+        Random random = new Random(7);
+        ParsedDocument document = incrementalParser.parse("Start text.\n\nMiddle (1+2) text.\n\tEnd.");
+        for (int n = 0; n < 500; n++) {
+            String text = document.getText();
+            int offset = random.nextInt(text.length() + 1);
+            int removedLength = random.nextInt(Math.min(6, text.length() - offset) + 1);
+            StringBuilder inserted = new StringBuilder();
+            int insertedLength = random.nextInt(6);
+            for (int i = 0; i < insertedLength; i++) {
+                inserted.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            document = incrementalParser.applyEdit(document, offset, removedLength, inserted.toString());
+            TextComponent expected = parserChain.parse(document.getText());
+            String currentText = document.getText();
+
+            assertEquals(expected.getChildren().size(), document.getParagraphCount(), currentText);
+            for (int i = 0; i < document.getParagraphCount(); i++) {
+                assertEquals(expected.getChild(i).restore(), document.getRoot().getChild(i).restore(), currentText);
+                assertEquals(currentText.substring(document.getParagraphStart(i), document.getParagraphEnd(i)).trim(),
+                        currentText.substring(document.getParagraphStart(i), document.getParagraphEnd(i)));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidEdit() {
+        ParsedDocument document = incrementalParser.parse("Text.");
+        assertThrows(IndexOutOfBoundsException.class, () -> incrementalParser.applyEdit(document, 3, 5, ""));
+    }
+}
@@ -0,0 +1,88 @@
+package com.texthandler.parser;
+
+import com.texthandler.TestTexts;
+import com.texthandler.composite.LazyTextComposite;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.operation.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyTextParserTest {
+    private String input;
+
+    @BeforeEach
+    void setUp() {
+        input = TestTexts.SAMPLE;
+    }
+
+    @Test
+    void testSameResultsAsEagerChain() {
+        TextOperation[] operations = {
+                new SortParagraphsBySentenceCountOperation(),
+                new FindSentencesWithLongestWordOperation(),
+                new RemoveShortSentencesOperation(5),
+                new CountIdenticalWordsOperation(),
+                new CountVowelsConsonantsOperation()
+        };
+        for (TextOperation operation : operations) {
+            TextComponent expected = ParserChainFactory.createChain().parse(input);
+            TextComponent result = ParserChainFactory.createLazyChain().parse(input);
+            assertEquals(operation.execute(expected), operation.execute(result), operation.getName());
+        }
+    }
+
+    @Test
+    void testParsesOnlyTouchedLevels() {
+        TextComponent result = ParserChainFactory.createLazyChain().parse(input);
+        LazyTextComposite paragraph = (LazyTextComposite) result.getChild(0);
+        assertFalse(paragraph.isLoaded());
+
+        int sentenceCount = paragraph.getChildren().size();
+        assertTrue(paragraph.isLoaded());
+        assertTrue(sentenceCount > 0);
+
+        LazyTextComposite sentence = (LazyTextComposite) paragraph.getChild(0);
+        assertFalse(sentence.isLoaded());
+        assertFalse(((LazyTextComposite) result.getChild(1)).isLoaded());
+
+        assertEquals(TextComponentType.LEXEME, sentence.getChild(0).getType());
+        assertTrue(sentence.isLoaded());
+    }
+
+    @Test
+    void testConcurrentAccessLoadsOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        TextParser paragraphParser = ParserChainFactory.createChain();
+        LazyTextComposite lazy = new LazyTextComposite(TextComponentType.TEXT, () -> {
+            loads.incrementAndGet();
+            return paragraphParser.parse(input);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<TextComponent>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return lazy.getChild(0);
+                }));
+            }
+            start.countDown();
+            for (Future<TextComponent> future : results) {
+                assertSame(results.get(0).get(), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,70 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTextParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameParagraphsAsWholeText() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            sb.append("Абзац номер ").append(i).append(" has (").append(i).append("*2) words. Next one.");
+            sb.append(i % 3 == 0 ? "\n\t" : i % 3 == 1 ? "\n   \n" : "\n      ");
+        }
+        String input = sb.toString();
+        Path file = tempDir.resolve("input.txt");
+        Files.writeString(file, input, StandardCharsets.UTF_8);
+
+        TextParser documentParser = new SinglePassTextParser();
+        TextComponent expected = documentParser.parse(input);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            TextComponent result = new MappedTextParser(documentParser, pool, 17).parse(file);
+
+            assertEquals(expected.getChildren().size(), result.getChildren().size());
+            for (int i = 0; i < expected.getChildren().size(); i++) {
+                assertEquals(expected.getChild(i).restore(), result.getChild(i).restore());
+            }
+
+            // Объединенный корень кэширует результат так же, как корень, разобранный целиком
+            assertSame(expected.restore(), expected.restore());
+            assertSame(result.restore(), result.restore());
+            assertSame(expected.getStatistics(), expected.getStatistics());
+            assertSame(result.getStatistics(), result.getStatistics());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path file = tempDir.resolve("empty.txt");
+        Files.writeString(file, "");
+
+        TextComponent result = new MappedTextParser(new SinglePassTextParser()).parse(file);
+        assertTrue(result.getChildren().isEmpty());
+    }
+
+    @Test
+    void testMalformedInput() throws IOException {
+        Path file = tempDir.resolve("broken.txt");
+        Files.write(file, new byte[] {'A', (byte) 0xC3, '.', '\n', '\n', 'B'});
+
+        assertThrows(CharacterCodingException.class,
+                () -> new MappedTextParser(new SinglePassTextParser()).parse(file));
+    }
+}
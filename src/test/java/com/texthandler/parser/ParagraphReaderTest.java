@@ -0,0 +1,74 @@
+package com.texthandler.parser;
+
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.util.RegexConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParagraphReaderTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 8, 64})
+    void testSameParagraphsAsWholeText(int chunkSize) throws IOException {
+        String alphabet = "ab. \n\n\t\r  \u0001";
+        Random random = new Random(chunkSize);
+        for (int n = 0; n < 200; n++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String input = sb.toString();
+            assertEquals(splitWhole(input), readChunked(input, chunkSize), () -> "Input: " + input);
+        }
+    }
+
+    @Test
+    void testSeparatorOnChunkEdge() throws IOException {
+        String input = "First.\n    \n\tSecond.\n\tThird.\n      Fourth.";
+        assertEquals(List.of("First.", "Second.", "Third.", "Fourth."), readChunked(input, 7));
+    }
+
+    @Test
+    void testStreamingParseEmitsParagraphsInOrder() throws IOException {
+        TextLevelParser textParser = new TextLevelParser();
+        textParser.setNext(new ParagraphLevelParser());
+
+        List<TextComponent> paragraphs = new ArrayList<>();
+        textParser.parse(new StringReader("One. Two.\n\nThree.\n\n\nFour."), paragraphs::add);
+
+        assertEquals(3, paragraphs.size());
+        assertEquals(TextComponentType.PARAGRAPH, paragraphs.get(0).getType());
+        assertEquals(2, paragraphs.get(0).getChildren().size());
+    }
+
+    private static List<String> splitWhole(String input) {
+        List<String> paragraphs = new ArrayList<>();
+        for (String paragraph : input.split(RegexConstants.PARAGRAPH_SEPARATOR)) {
+            if (!paragraph.trim().isEmpty()) {
+                paragraphs.add(paragraph.trim());
+            }
+        }
+        return paragraphs;
+    }
+
+    private static List<String> readChunked(String input, int chunkSize) throws IOException {
+        ParagraphReader reader = new ParagraphReader(new StringReader(input), chunkSize);
+        List<String> paragraphs = new ArrayList<>();
+        String paragraph;
+        while ((paragraph = reader.nextParagraph()) != null) {
+            paragraphs.add(paragraph);
+        }
+        return paragraphs;
+    }
+}
@@ -2,8 +2,15 @@ package com.texthandler.parser;
 
 import com.texthandler.composite.TextComponent;
 import com.texthandler.composite.TextComponentType;
+import com.texthandler.operation.CountVowelsConsonantsOperation;
+import com.texthandler.operation.SortParagraphsBySentenceCountOperation;
+import com.texthandler.operation.TextOperation;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ParserChainTest {
@@ -81,4 +88,73 @@ class ParserChainTest {
         assertNotNull(result);
         assertEquals(TextComponentType.TEXT, result.getType());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParallelParsingKeepsParagraphOrder() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            sb.append("Paragraph ").append(i).append(" has (").append(i).append("+1) words. Second sentence.\n\n");
+        }
+        String input = sb.toString();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TextParser parallelParser = new TextLevelParser(pool, 1);
+            TextParser paragraphParser = new ParagraphLevelParser();
+            TextParser sentenceParser = new SentenceLevelParser();
+            paragraphParser.setNext(sentenceParser);
+            sentenceParser.setNext(new LexemeLevelParser());
+            parallelParser.setNext(paragraphParser);
+
+            TextComponent expected = parserChain.parse(input);
+            TextComponent result = parallelParser.parse(input);
+
+            assertEquals(50, result.getChildren().size());
+            assertEquals(expected.restore(), result.restore());
+            for (int i = 0; i < 50; i++) {
+                assertEquals(expected.getChild(i).restore(), result.getChild(i).restore());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testChainStopsAtRequestedDepth() {
+        String input = "First sentence here. Second (2+3) one!\n\nAnother paragraph.";
+        TextComponent expected = parserChain.parse(input);
+        TextComponent result = ParserChainFactory.createChain(TextComponentType.SENTENCE).parse(input);
+
+        assertEquals(expected.getChildren().size(), result.getChildren().size());
+        assertEquals(expected.getChild(0).getChildren().size(), result.getChild(0).getChildren().size());
+
+        TextComponent sentence = result.getChild(0).getChild(1);
+        assertEquals(TextComponentType.SENTENCE, sentence.getType());
+        assertTrue(sentence.getChildren().isEmpty());
+        assertEquals("Second 5.0 one!", sentence.getContent());
+        assertEquals("Second 5.0 one!", sentence.restore());
+
+        TextComponent paragraphs = ParserChainFactory.createChain(TextComponentType.PARAGRAPH).parse(input);
+        assertEquals("Another paragraph.", paragraphs.getChild(1).restore());
+    }
+
+    @Test
+    void testShallowChainRestoresLikeFullTree() {
+        String input = "Мама мыла раму. Это test слов, (2+3) раза!\n\nВторой абзац здесь!";
+        TextComponent full = parserChain.parse(input);
+        TextComponent sentences = ParserChainFactory.createChain(TextComponentType.SENTENCE).parse(input);
+        TextComponent lexemes = ParserChainFactory.createChain(TextComponentType.LEXEME).parse(input);
+
+        assertEquals(full.restore(), sentences.restore());
+        assertEquals(full.restore(), lexemes.restore());
+        assertEquals(full.getStatistics().getVowelCount(), sentences.getStatistics().getVowelCount());
+        assertEquals(full.getStatistics().getConsonantCount(), sentences.getStatistics().getConsonantCount());
+
+        for (TextOperation operation : List.of(new CountVowelsConsonantsOperation(),
+                new SortParagraphsBySentenceCountOperation())) {
+            assertEquals(operation.execute(full), operation.execute(sentences), operation.getName());
+            assertEquals(operation.execute(new SinglePassTextParser().parse(input)),
+                    operation.execute(sentences), operation.getName());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.texthandler.parser;
+
+import com.texthandler.TestTexts;
+import com.texthandler.composite.TextComponent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedTextParserTest {
+    private TextParser parserChain;
+
+    @BeforeEach
+    void setUp() {
+        parserChain = ParserChainFactory.createChain();
+    }
+
+    @Test
+    void testSameTreeAsParserChain() {
+        StringBuilder sb = new StringBuilder(TestTexts.SAMPLE);
+        for (int i = 0; i < 100; i++) {
+            sb.append("\n\nParagraph ").append(i).append(" costs (").append(i).append("+1)*2 units. ");
+            for (int j = 0; j < i % 5; j++) {
+                sb.append("Sentence ").append(j).append(" is here! ");
+            }
+        }
+        String input = sb.toString();
+        TextComponent expected = parserChain.parse(input);
+
+        for (int[] config : new int[][] {{1, 1, 1}, {3, 2, 4}, {2, 5, 64}}) {
+            TextComponent result = new PipelinedTextParser(config[0], config[1], config[2]).parse(input);
+            assertEquals(expected.getChildren().size(), result.getChildren().size());
+            for (int i = 0; i < expected.getChildren().size(); i++) {
+                assertEquals(expected.getChild(i).restore(), result.getChild(i).restore());
+                assertEquals(expected.getChild(i).getChildren().size(), result.getChild(i).getChildren().size());
+            }
+        }
+    }
+
+    @Test
+    void testEmptyText() {
+        TextComponent result = new PipelinedTextParser().parse("   \n\n   ");
+        assertTrue(result.getChildren().isEmpty());
+    }
+
+    @Test
+    void testErrorInStageDoesNotBlockPipeline() {
+        ParagraphLevelParser failing = new ParagraphLevelParser() {
+            @Override
+            List<String> splitSentences(String text) {
+                if (text.startsWith("Bad")) {
+                    throw new StackOverflowError("too deep");
+                }
+                return super.splitSentences(text);
+            }
+        };
+        StringBuilder input = new StringBuilder("Bad paragraph.");
+        for (int i = 0; i < 50; i++) {
+            input.append("\n\nParagraph ").append(i).append(" is fine.");
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            PipelinedTextParser parser = new PipelinedTextParser(executor, failing, 1, 1, 1);
+            StackOverflowError error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(StackOverflowError.class, () -> parser.parse(input.toString())));
+            assertEquals("too deep", error.getMessage());
+
+            // Переданный исполнитель не завершается и используется повторно
+            assertEquals(2, new PipelinedTextParser(executor, 1, 1, 1).parse("One. Two.\n\nThree.").getChildCount());
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedTextParser(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedTextParser(1, 1, 0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.texthandler.parser;
+
+import com.texthandler.TestTexts;
+import com.texthandler.composite.LeafFactory;
+import com.texthandler.composite.SpanTextLeaf;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static com.texthandler.TestTexts.dump;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SinglePassTextParserTest {
+    private TextParser parserChain;
+    private TextParser singlePassParser;
+
+    @BeforeEach
+    void setUp() {
+        TextParser textParser = new TextLevelParser();
+        TextParser paragraphParser = new ParagraphLevelParser();
+        TextParser sentenceParser = new SentenceLevelParser();
+        TextParser lexemeParser = new LexemeLevelParser();
+
+        textParser.setNext(paragraphParser);
+        paragraphParser.setNext(sentenceParser);
+        sentenceParser.setNext(lexemeParser);
+
+        parserChain = textParser;
+        singlePassParser = new SinglePassTextParser();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "   \n\n   ",
+            "Hello world!",
+            "First paragraph.\n\nSecond paragraph.",
+            "Result is (2+3) points. Next one is 2+2*2!",
+            "Line one\n\tindented paragraph.\n     Another one.",
+            "Version 1.5abc and a1.5 or 12.34.56, done… Привет мир. Ещё",
+            "Quotes: \"hi\", 'there' -- (Content here), x_y... Wait?! Yes.",
+            "Control\u0001 chars \u0001\u0002 here.\r\n\r\nNext"
+    })
+    void testSameTreeAsParserChain(String input) {
+        assertEquals(dump(parserChain.parse(input)), dump(singlePassParser.parse(input)));
+    }
+
+    @Test
+    void testSameTreeOnSampleText() {
+        String input = TestTexts.SAMPLE;
+        assertEquals(dump(parserChain.parse(input)), dump(singlePassParser.parse(input)));
+    }
+
+    @Test
+    void testSameTreeOnRandomInput() {
+        String alphabet = "abcXYZ019_.,!?…;:'\"-+*/()  \n\n\t\rАяЖ\u0001";
+        Random random = new Random(42);
+        for (int n = 0; n < 300; n++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(80);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String input = sb.toString();
+            assertEquals(dump(parserChain.parse(input)), dump(singlePassParser.parse(input)),
+                    () -> "Input: " + input);
+        }
+    }
+
+    @Test
+    void testSpanLeavesProduceSameTree() {
+        TextParser spanParser = new SinglePassTextParser(LeafFactory.spans());
+        String input = TestTexts.SAMPLE
+                + "\n\nPlain paragraph without numbers, just words!";
+
+        TextComponent result = spanParser.parse(input);
+        assertEquals(dump(parserChain.parse(input)), dump(result));
+
+        TextComponent lastWord = result.getChild(result.getChildren().size() - 1).getChild(0).getChild(0).getChild(0);
+        assertInstanceOf(SpanTextLeaf.class, lastWord);
+        assertEquals("Plain", lastWord.getContent());
+    }
+
+    @Test
+    void testRestore() {
+        TextComponent result = singlePassParser.parse("Result is (2+3) points.");
+        assertEquals(TextComponentType.TEXT, result.getType());
+        assertEquals("Result is 5.0 points.", result.restore());
+    }
+}
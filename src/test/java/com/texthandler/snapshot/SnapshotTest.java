@@ -0,0 +1,175 @@
+package com.texthandler.snapshot;
+
+import com.texthandler.TestTexts;
+import com.texthandler.composite.LazyTextComposite;
+import com.texthandler.composite.TextComponent;
+import com.texthandler.composite.TextComponentType;
+import com.texthandler.composite.TextComposite;
+import com.texthandler.parser.ParserChainFactory;
+import com.texthandler.parser.SinglePassTextParser;
+import com.texthandler.parser.TextParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static com.texthandler.TestTexts.dump;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private String input;
+    private TextComponent tree;
+
+    @BeforeEach
+    void setUp() {
+        input = TestTexts.SAMPLE;
+        tree = new SinglePassTextParser().parse(input);
+    }
+
+    @Test
+    void testReadRestoresSameTree() throws IOException {
+        Path path = tempDir.resolve("input.snapshot");
+        SnapshotWriter.write(tree, path);
+
+        assertEquals(dump(tree), dump(SnapshotReader.read(path)));
+        assertTrue(Files.size(path) < input.getBytes(StandardCharsets.UTF_8).length * 2L);
+    }
+
+    @Test
+    void testOpenLoadsParagraphsLazily() throws IOException {
+        Path path = tempDir.resolve("input.snapshot");
+        SnapshotWriter.write(tree, path);
+
+        TextComponent document = SnapshotReader.open(path);
+        LazyTextComposite last = (LazyTextComposite) document.getChildrenView().get(document.getChildCount() - 1);
+        assertFalse(last.isLoaded());
+        assertEquals(tree.getChild(tree.getChildCount() - 1).restore(), last.restore());
+        assertTrue(last.isLoaded());
+        assertEquals(dump(tree), dump(document));
+    }
+
+    @Test
+    void testDictionarySharesStrings() throws IOException {
+        TextComponent sentence = new SinglePassTextParser().parse("Word word Word word Word.");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWriter.write(sentence, out);
+
+        TextComponent restored = SnapshotReader.read(ByteBuffer.wrap(out.toByteArray()));
+        TextComponent lexemes = restored.getChild(0).getChild(0);
+        assertSame(lexemes.getChild(0).getContent(), lexemes.getChild(2).getContent());
+        assertEquals(sentence.restore(), restored.restore());
+    }
+
+    @Test
+    void testShortenedChainKeepsContent() throws IOException {
+        TextComponent paragraphs = ParserChainFactory.createChain(TextComponentType.PARAGRAPH).parse(input);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWriter.write(paragraphs, out);
+
+        TextComponent restored = SnapshotReader.read(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(dump(paragraphs), dump(restored));
+        assertEquals(0, restored.getChild(0).getChildCount());
+    }
+
+    @Test
+    void testRejectsOtherFiles() {
+        assertThrows(IOException.class, () -> SnapshotReader.read(ByteBuffer.wrap("text".getBytes())));
+    }
+
+    @Test
+    void testLoadOrParse() throws IOException {
+        Path source = tempDir.resolve("input.txt");
+        Files.writeString(source, input);
+        Path cache = tempDir.resolve("cache");
+        Path snapshot = DocumentSnapshots.snapshotPath(source, cache);
+
+        TextComponent parsed = DocumentSnapshots.loadOrParse(source, new SinglePassTextParser(), cache);
+        assertInstanceOf(TextComposite.class, parsed.getChildrenView().get(0));
+        assertTrue(Files.exists(snapshot));
+        assertFalse(Files.exists(source.resolveSibling("input.txt" + DocumentSnapshots.EXTENSION)));
+
+        TextComponent loaded = DocumentSnapshots.loadOrParse(source, new SinglePassTextParser(), cache);
+        assertInstanceOf(LazyTextComposite.class, loaded.getChildrenView().get(0));
+        assertEquals(dump(parsed), dump(loaded));
+
+        // Измененный исходный файл разбирается заново
+        Files.writeString(source, "Changed text.");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(snapshot).toMillis() + 1000));
+        assertEquals("Changed text.", DocumentSnapshots.loadOrParse(source, new SinglePassTextParser(), cache).restore());
+    }
+
+    @Test
+    void testSnapshotOfAnotherParserIsNotUsed() throws IOException {
+        Path source = tempDir.resolve("input.txt");
+        Files.writeString(source, input);
+        Path cache = tempDir.resolve("cache");
+        TextParser paragraphs = ParserChainFactory.createChain(TextComponentType.PARAGRAPH);
+        assertNotEquals(DocumentSnapshots.fingerprint(paragraphs),
+                DocumentSnapshots.fingerprint(ParserChainFactory.createChain()));
+        assertEquals(DocumentSnapshots.fingerprint(new SinglePassTextParser()),
+                DocumentSnapshots.fingerprint(new SinglePassTextParser()));
+
+        DocumentSnapshots.loadOrParse(source, paragraphs, cache);
+        TextComponent document = DocumentSnapshots.loadOrParse(source, ParserChainFactory.createChain(), cache);
+        assertEquals(dump(tree), dump(document));
+        assertInstanceOf(TextComposite.class, document.getChildrenView().get(0));
+
+        Path snapshot = DocumentSnapshots.snapshotPath(source, cache);
+        assertThrows(IOException.class, () -> SnapshotReader.open(snapshot, DocumentSnapshots.fingerprint(paragraphs)));
+        assertEquals(dump(tree), dump(SnapshotReader.open(snapshot)));
+    }
+
+    @Test
+    void testCorruptSnapshotIsRejectedOnOpen() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWriter.write(tree, out);
+        byte[] bytes = out.toByteArray();
+        int dictionaryStart = SnapshotFormat.HEADER_SIZE;
+
+        // Огромное количество строк словаря
+        byte[] hugeDictionary = bytes.clone();
+        hugeDictionary[dictionaryStart] = (byte) 0xFF;
+        hugeDictionary[dictionaryStart + 1] = (byte) 0xFF;
+        hugeDictionary[dictionaryStart + 2] = (byte) 0xFF;
+        hugeDictionary[dictionaryStart + 3] = (byte) 0x7F;
+        assertThrows(IOException.class, () -> open(hugeDictionary));
+
+        // Обрезанный файл и испорченная таблица смещений
+        assertThrows(IOException.class, () -> open(Arrays.copyOf(bytes, bytes.length - 1)));
+        byte[] badOffset = bytes.clone();
+        ByteBuffer.wrap(badOffset).putInt(offsetsStart(bytes, tree.getChildCount()) + Integer.BYTES, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> open(badOffset));
+
+        assertEquals(dump(tree), dump(open(bytes)));
+    }
+
+    private TextComponent open(byte[] bytes) throws IOException {
+        Path path = Files.write(tempDir.resolve("corrupt.snapshot"), bytes);
+        return SnapshotReader.open(path);
+    }
+
+    /**
+     * Начало таблицы смещений: ее первая запись равна 0, последняя - размеру блоков до конца файла
+     */
+    private static int offsetsStart(byte[] bytes, int childCount) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int tableSize = (childCount + 1) * Integer.BYTES;
+        for (int start = SnapshotFormat.HEADER_SIZE; start + tableSize <= bytes.length; start++) {
+            if (buffer.getInt(start) == 0 && buffer.getInt(start + tableSize - Integer.BYTES) == bytes.length - start - tableSize) {
+                return start;
+            }
+        }
+        throw new AssertionError("Offset table not found");
+    }
+}